@@ -0,0 +1,296 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: BookSearchActivity performance testing class
+ */
+package com.exercise.booksexplorer;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.AutoCompleteTextView;
+
+import com.exercise.booksexplorer.api.VolumesRepository;
+import com.exercise.booksexplorer.books.BookSearchActivity;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.action.ViewActions.clearText;
+import static android.support.test.espresso.action.ViewActions.click;
+import static android.support.test.espresso.action.ViewActions.pressKey;
+import static android.support.test.espresso.action.ViewActions.typeText;
+import static android.support.test.espresso.matcher.ViewMatchers.isAssignableFrom;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the smoothness and latency of the search against the {@link FakeBooksBackend}, see
+ * {@link PerfTestRunner} for its configuration. Every test publishes a {@link PerfReport} and fails
+ * when a metric is over its budget. The latency budgets are the backend latency plus the time
+ * allowed for the app itself.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class BookSearchPerfTest {
+    private static final int QUERIES = 8;
+    private static final int FLINGS = 12;
+    private static final int PAGE_REQUESTS = 60;
+    private static final int PAGES_PER_QUERY = 5;
+    private static final long ROW_TIMEOUT_MILLIS = 10 * 1000;
+    private static final long SCROLL_TIMEOUT_MILLIS = 10 * 1000;
+
+    // The time allowed for the app on top of the backend latency and the live search debounce
+    private static final long FIRST_ROW_BUDGET_MILLIS = 500;
+    private static final long PAGE_LOAD_BUDGET_MILLIS = 150;
+    private static final double JANKY_FRAMES_BUDGET_PERCENT = 5;
+
+    @Rule
+    public ActivityTestRule<BookSearchActivity> mActivityRule = new ActivityTestRule<>(
+            BookSearchActivity.class);
+
+    private final Instrumentation mInstrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void keystrokeToFirstRow() throws Exception {
+        PerfReport report = new PerfReport("keystrokeToFirstRow");
+        RecyclerView list = (RecyclerView) mActivityRule.getActivity().findViewById(R.id.books_rv);
+        onView(withId(R.id.search_view)).perform(click());
+
+        // the time the last character typed reaches the search view
+        final long[] lastKeystroke = new long[1];
+        final AutoCompleteTextView searchText = callOnMain(new Callable<AutoCompleteTextView>() {
+            @Override
+            public AutoCompleteTextView call() {
+                return findView(mActivityRule.getActivity().findViewById(R.id.search_view),
+                        AutoCompleteTextView.class);
+            }
+        });
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                searchText.addTextChangedListener(new TextWatcher() {
+                    @Override
+                    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                    }
+
+                    @Override
+                    public void onTextChanged(CharSequence s, int start, int before, int count) {
+                    }
+
+                    @Override
+                    public void afterTextChanged(Editable s) {
+                        lastKeystroke[0] = SystemClock.uptimeMillis();
+                    }
+                });
+            }
+        });
+
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            onView(isAssignableFrom(AutoCompleteTextView.class)).perform(clearText());
+            FirstRowWatcher watcher = watchFirstRow(list);
+            // not matching the words of the recorded titles, the rows come from the backend only
+            onView(isAssignableFrom(AutoCompleteTextView.class)).perform(typeText("qzx" + i));
+            latencies[i] = watcher.await() - lastKeystroke[0];
+        }
+
+        int debounce = mActivityRule.getActivity().getResources().getInteger(R.integer.live_search_debounce_ms);
+        report.addSamples("keystrokeToFirstRowMillis", latencies,
+                debounce + PerfTestApplication.getBackend().getMaxLatencyMillis() + FIRST_ROW_BUDGET_MILLIS);
+        report.publish();
+        report.assertWithinBudgets();
+    }
+
+    @Test
+    public void flingJank() throws Exception {
+        PerfReport report = new PerfReport("flingJank");
+        final RecyclerView list = (RecyclerView) mActivityRule.getActivity().findViewById(R.id.books_rv);
+        FirstRowWatcher watcher = watchFirstRow(list);
+        onView(withId(R.id.search_view)).perform(click());
+        onView(isAssignableFrom(AutoCompleteTextView.class)).perform(typeText("android"),
+                pressKey(KeyEvent.KEYCODE_ENTER));
+        watcher.await();
+
+        float refreshRate = mActivityRule.getActivity().getWindowManager().getDefaultDisplay().getRefreshRate();
+        final FrameStats stats = new FrameStats(refreshRate);
+        int requests = PerfTestApplication.getBackend().getRequestCount();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                stats.start();
+            }
+        });
+        for (int i = 0; i < FLINGS; i++) {
+            mInstrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    list.fling(0, list.getMaxFlingVelocity() / 2);
+                }
+            });
+            awaitScrollIdle(list);
+        }
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                stats.stop();
+            }
+        });
+
+        report.addValue("frames", stats.getFrames(), -1);
+        report.addValue("droppedFrames", stats.getDroppedFrames(), -1);
+        report.addValue("jankyFramesPercent",
+                stats.getFrames() == 0 ? 0 : 100.0 * stats.getJankyFrames() / stats.getFrames(),
+                JANKY_FRAMES_BUDGET_PERCENT);
+        report.addValue("pagesRequested", PerfTestApplication.getBackend().getRequestCount() - requests, -1);
+        report.publish();
+        report.assertWithinBudgets();
+    }
+
+    @Test
+    public void pageLoadLatency() throws Exception {
+        PerfReport report = new PerfReport("pageLoadLatency");
+        BooksExplorerApplication application =
+                (BooksExplorerApplication) InstrumentationRegistry.getTargetContext().getApplicationContext();
+        VolumesRepository repository = application.getAppComponent().volumesRepository();
+        int pageSize = application.getResources().getInteger(R.integer.page_size);
+
+        long[] latencies = new long[PAGE_REQUESTS];
+        int loaded = 0;
+        int failed = 0;
+        for (int i = 0; i < PAGE_REQUESTS; i++) {
+            // never cached, every request reaches the backend
+            long started = SystemClock.elapsedRealtime();
+            try {
+                repository.list("latency" + i / PAGES_PER_QUERY, (i % PAGES_PER_QUERY) * pageSize, pageSize);
+                latencies[loaded++] = SystemClock.elapsedRealtime() - started;
+            } catch (IOException e) {
+                failed++;
+            }
+        }
+
+        long[] samples = new long[loaded];
+        System.arraycopy(latencies, 0, samples, 0, loaded);
+        report.addSamples("pageLoadMillis", samples,
+                PerfTestApplication.getBackend().getMaxLatencyMillis() + PAGE_LOAD_BUDGET_MILLIS);
+        report.addValue("failedPages", failed, -1);
+        report.publish();
+        report.assertWithinBudgets();
+    }
+
+    /**
+     * Installs a watcher of the first row of other books than the ones in the list
+     */
+    private FirstRowWatcher watchFirstRow(final RecyclerView list) {
+        return callOnMain(new Callable<FirstRowWatcher>() {
+            @Override
+            public FirstRowWatcher call() {
+                return new FirstRowWatcher(list);
+            }
+        });
+    }
+
+    private void awaitScrollIdle(final RecyclerView list) throws InterruptedException {
+        long deadline = SystemClock.uptimeMillis() + SCROLL_TIMEOUT_MILLIS;
+        while (SystemClock.uptimeMillis() < deadline) {
+            Thread.sleep(50);
+            int state = callOnMain(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return list.getScrollState();
+                }
+            });
+            if (state == RecyclerView.SCROLL_STATE_IDLE)
+                return;
+        }
+    }
+
+    private <T> T callOnMain(final Callable<T> callable) {
+        final Object[] result = new Object[1];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result[0] = callable.call();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    private static <T extends View> T findView(View view, Class<T> type) {
+        if (type.isInstance(view))
+            return type.cast(view);
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                T child = findView(group.getChildAt(i), type);
+                if (child != null)
+                    return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the time of the first frame drawing a book at the top of the list that was not in
+     * the list when the watcher was created. Created on the main thread.
+     */
+    private static class FirstRowWatcher implements ViewTreeObserver.OnPreDrawListener {
+        private final RecyclerView mList;
+        private final Set<Long> mOldIds = new HashSet<>();
+        private final CountDownLatch mDrawn = new CountDownLatch(1);
+        private long mDrawnMillis;
+
+        FirstRowWatcher(RecyclerView list) {
+            mList = list;
+            RecyclerView.Adapter adapter = list.getAdapter();
+            for (int i = 0; i < adapter.getItemCount(); i++)
+                mOldIds.add(adapter.getItemId(i));
+            list.getViewTreeObserver().addOnPreDrawListener(this);
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            RecyclerView.ViewHolder holder = mList.findViewHolderForAdapterPosition(0);
+            if (holder != null && holder.itemView.findViewById(R.id.book_title) != null
+                    && holder.getItemId() != RecyclerView.NO_ID && !mOldIds.contains(holder.getItemId())) {
+                mDrawnMillis = SystemClock.uptimeMillis();
+                mList.getViewTreeObserver().removeOnPreDrawListener(this);
+                mDrawn.countDown();
+            }
+            return true;
+        }
+
+        /**
+         * @return the uptime the row was drawn at
+         */
+        long await() throws InterruptedException {
+            assertTrue("No results drawn", mDrawn.await(ROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            return mDrawnMillis;
+        }
+    }
+}
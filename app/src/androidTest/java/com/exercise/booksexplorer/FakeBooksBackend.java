@@ -0,0 +1,197 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Local stand-in of the Books API replaying a recorded page
+ */
+package com.exercise.booksexplorer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Serves the volumes list requests with the recorded page of the unit tests, so the app runs against
+ * a deterministic local server instead of the Google servers. Every page gets distinct volume ids
+ * for its query and start index, and the thumbnails are served by the same server, so the list
+ * scrolls through as many distinct books as the recorded total items.
+ * <p>
+ * The responses are delayed by a random latency in the configured range and fail with 503 at the
+ * configured rate. The configuration can be changed at any time from any thread.
+ */
+public class FakeBooksBackend {
+    private static final String PAGE_RESOURCE = "volumes_page.json";
+    private static final String VOLUMES_PATH = "/books/v1/volumes";
+    private static final String COVERS_PATH = "/covers/";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Pattern ID = Pattern.compile("\"id\": \"([^\"]*)\"");
+    private static final Pattern THUMBNAIL = Pattern.compile("\"thumbnail\": \"[^\"]*\"");
+
+    private final MockWebServer mServer = new MockWebServer();
+    private final Random mRandom = new Random();
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private final AtomicInteger mErrorCount = new AtomicInteger();
+    private String mPage;
+    private byte[] mCover;
+
+    private volatile long mMinLatencyMillis;
+    private volatile long mMaxLatencyMillis;
+    private volatile float mErrorRate;
+
+    /**
+     * Starts the server on the loopback interface, must not be called from the main thread
+     */
+    public void start() throws IOException {
+        mPage = new String(readResource(PAGE_RESOURCE), UTF_8);
+        mCover = drawCover();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                return respond(request);
+            }
+        });
+        mServer.start();
+    }
+
+    public void shutdown() throws IOException {
+        mServer.shutdown();
+    }
+
+    /**
+     * @return the root URL of the Books API on this server
+     */
+    public String getRootUrl() {
+        return mServer.url("/").toString();
+    }
+
+    /**
+     * Delays every response by a random time in the range
+     */
+    public void setLatency(long minMillis, long maxMillis) {
+        mMinLatencyMillis = minMillis;
+        mMaxLatencyMillis = Math.max(minMillis, maxMillis);
+    }
+
+    /**
+     * @return the maximum latency of the responses in milliseconds
+     */
+    public long getMaxLatencyMillis() {
+        return mMaxLatencyMillis;
+    }
+
+    /**
+     * @param errorRate the share of the volumes requests failing with 503, from 0 to 1
+     */
+    public void setErrorRate(float errorRate) {
+        mErrorRate = errorRate;
+    }
+
+    /**
+     * @return the number of volumes requests served
+     */
+    public int getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    /**
+     * @return the number of volumes requests failed on purpose
+     */
+    public int getErrorCount() {
+        return mErrorCount.get();
+    }
+
+    private MockResponse respond(RecordedRequest request) throws InterruptedException {
+        HttpUrl url = request.getRequestUrl();
+        if (url.encodedPath().startsWith(COVERS_PATH)) {
+            return new MockResponse()
+                    .setHeader("Content-Type", "image/jpeg")
+                    .setBody(new Buffer().write(mCover));
+        }
+        if (!url.encodedPath().equals(VOLUMES_PATH))
+            return new MockResponse().setResponseCode(404);
+
+        mRequestCount.incrementAndGet();
+        long latency = mMinLatencyMillis;
+        if (mMaxLatencyMillis > mMinLatencyMillis)
+            latency += (long) (mRandom.nextDouble() * (mMaxLatencyMillis - mMinLatencyMillis));
+        if (latency > 0)
+            Thread.sleep(latency);
+        if (mErrorRate > 0 && mRandom.nextFloat() < mErrorRate) {
+            mErrorCount.incrementAndGet();
+            return new MockResponse().setResponseCode(503);
+        }
+
+        String query = url.queryParameter("q");
+        String startIndex = url.queryParameter("startIndex");
+        String prefix = Integer.toHexString(query == null ? 0 : query.hashCode()) + "-"
+                + (startIndex == null ? "0" : startIndex) + "-";
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody(page(prefix));
+    }
+
+    /**
+     * @return the recorded page with the volume ids and thumbnails prefixed
+     */
+    private String page(String prefix) {
+        StringBuffer ids = new StringBuffer(mPage.length() + 1024);
+        Matcher matcher = ID.matcher(mPage);
+        while (matcher.find())
+            matcher.appendReplacement(ids, Matcher.quoteReplacement("\"id\": \"" + prefix + matcher.group(1) + "\""));
+        matcher.appendTail(ids);
+
+        StringBuffer page = new StringBuffer(ids.length() + 1024);
+        matcher = THUMBNAIL.matcher(ids);
+        int cover = 0;
+        while (matcher.find()) {
+            String thumbnail = mServer.url(COVERS_PATH + prefix + cover++ + ".jpg").toString();
+            matcher.appendReplacement(page, Matcher.quoteReplacement("\"thumbnail\": \"" + thumbnail + "\""));
+        }
+        matcher.appendTail(page);
+        return page.toString();
+    }
+
+    /**
+     * @return a JPEG of the size of the Books API thumbnails
+     */
+    private static byte[] drawCover() {
+        Bitmap bitmap = Bitmap.createBitmap(128, 192, Bitmap.Config.ARGB_8888);
+        new Canvas(bitmap).drawColor(Color.rgb(0x3f, 0x51, 0xb5));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, 80, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        InputStream in = FakeBooksBackend.class.getClassLoader().getResourceAsStream(name);
+        if (in == null)
+            throw new IOException(name + " not found");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                out.write(buffer, 0, read);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Frames counting of the main thread
+ */
+package com.exercise.booksexplorer;
+
+import android.view.Choreographer;
+
+/**
+ * Counts the frames produced by the main thread and the frames it dropped, from the intervals
+ * between the Choreographer frame callbacks: an interval spanning several refresh periods means
+ * the main thread missed the vsyncs in between. Must be used from the main thread.
+ */
+class FrameStats implements Choreographer.FrameCallback {
+    private final long mFramePeriodNanos;
+    private boolean mRunning;
+    private long mLastFrameNanos;
+    private int mFrames;
+    private int mJankyFrames;
+    private int mDroppedFrames;
+
+    /**
+     * @param refreshRate the refresh rate of the display in frames per second
+     */
+    FrameStats(float refreshRate) {
+        mFramePeriodNanos = (long) (1000000000L / refreshRate);
+    }
+
+    void start() {
+        mRunning = true;
+        mLastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop() {
+        mRunning = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning)
+            return;
+        if (mLastFrameNanos > 0) {
+            mFrames++;
+            // rounded to the nearest period, the vsync times jitter
+            long periods = (frameTimeNanos - mLastFrameNanos + mFramePeriodNanos / 2) / mFramePeriodNanos;
+            if (periods > 1) {
+                mJankyFrames++;
+                mDroppedFrames += periods - 1;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * @return the frames produced
+     */
+    int getFrames() {
+        return mFrames;
+    }
+
+    /**
+     * @return the frames produced late, after one or more missed vsyncs
+     */
+    int getJankyFrames() {
+        return mJankyFrames;
+    }
+
+    /**
+     * @return the vsyncs missed
+     */
+    int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+}
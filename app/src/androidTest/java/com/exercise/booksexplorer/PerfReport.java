@@ -0,0 +1,138 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Performance metrics report of an instrumented test
+ */
+package com.exercise.booksexplorer;
+
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Collects the metrics of a test with their budgets and publishes them:
+ * <ul>
+ * <li>logged under the {@code PerfReport} tag, the metrics over budget marked {@code OVER BUDGET}</li>
+ * <li>reported as instrumentation status, shown by {@code am instrument -r}</li>
+ * <li>written as JSON to {@code files/perf/<test>.json} of the external storage of the app</li>
+ * </ul>
+ * A test calls {@link #assertWithinBudgets()} last, failing with all the metrics over budget.
+ */
+class PerfReport {
+    private static final String TAG = PerfReport.class.getSimpleName();
+
+    private final String mName;
+    private final JSONObject mMetrics = new JSONObject();
+    private final List<String> mOverBudget = new ArrayList<>();
+
+    /**
+     * @param name the name of the test
+     */
+    PerfReport(String name) {
+        mName = name;
+    }
+
+    /**
+     * Adds the percentiles of the samples, the 90th percentile is checked against the budget
+     *
+     * @param metric  the metric name, including its unit
+     * @param samples the samples
+     * @param budget  the maximum 90th percentile
+     */
+    void addSamples(String metric, long[] samples, long budget) {
+        long[] sorted = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(sorted);
+        try {
+            JSONObject stats = new JSONObject()
+                    .put("count", sorted.length)
+                    .put("p50", percentile(sorted, 50))
+                    .put("p90", percentile(sorted, 90))
+                    .put("p99", percentile(sorted, 99))
+                    .put("max", sorted.length > 0 ? sorted[sorted.length - 1] : 0)
+                    .put("budgetP90", budget);
+            check(metric, stats, percentile(sorted, 90) <= budget);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a single value checked against the budget, negative for no budget
+     */
+    void addValue(String metric, double value, double budget) {
+        try {
+            JSONObject stats = new JSONObject().put("value", value);
+            if (budget >= 0)
+                stats.put("budget", budget);
+            check(metric, stats, budget < 0 || value <= budget);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Logs, reports and writes the metrics
+     */
+    void publish() {
+        String json;
+        try {
+            json = mMetrics.toString(2);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        Log.i(TAG, mName + ": " + json);
+
+        Bundle status = new Bundle();
+        status.putString("perf." + mName, mMetrics.toString());
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+
+        File dir = InstrumentationRegistry.getTargetContext().getExternalFilesDir("perf");
+        if (dir == null || (!dir.isDirectory() && !dir.mkdirs())) {
+            Log.w(TAG, "No external storage, " + mName + " not written");
+            return;
+        }
+        File file = new File(dir, mName + ".json");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            out.write(json);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write " + file, e);
+        }
+    }
+
+    /**
+     * Fails with the metrics over budget, if any
+     */
+    void assertWithinBudgets() {
+        if (!mOverBudget.isEmpty())
+            fail(mName + " over budget: " + mOverBudget);
+    }
+
+    private void check(String metric, JSONObject stats, boolean withinBudget) throws JSONException {
+        stats.put("withinBudget", withinBudget);
+        mMetrics.put(metric, stats);
+        if (!withinBudget) {
+            mOverBudget.add(metric + " " + stats);
+            Log.w(TAG, mName + " " + metric + " OVER BUDGET: " + stats);
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0)
+            return 0;
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
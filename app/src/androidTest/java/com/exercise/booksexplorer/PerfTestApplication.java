@@ -0,0 +1,79 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: The application under instrumentation tests
+ */
+package com.exercise.booksexplorer;
+
+import com.exercise.booksexplorer.dagger.components.AppComponent;
+import com.exercise.booksexplorer.dagger.components.DaggerAppComponent;
+import com.exercise.booksexplorer.dagger.modules.AppModule;
+import com.exercise.booksexplorer.dagger.modules.BookModule;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Points the Books client to a {@link FakeBooksBackend} started with the application, and starts
+ * from empty volumes cache and index so every run requests the same pages.
+ */
+public class PerfTestApplication extends BooksExplorerApplication {
+    private static final FakeBooksBackend sBackend = new FakeBooksBackend();
+
+    /**
+     * @return the backend serving the application
+     */
+    public static FakeBooksBackend getBackend() {
+        return sBackend;
+    }
+
+    @Override
+    public void onCreate() {
+        delete(new File(getCacheDir(), "volumes"));
+        delete(new File(getFilesDir(), "volumes.idx"));
+        startBackend();
+        super.onCreate();
+    }
+
+    @Override
+    protected AppComponent createAppComponent() {
+        return DaggerAppComponent.builder()
+                .appModule(new AppModule(this))
+                .bookModule(new BookModule(sBackend.getRootUrl()))
+                .build();
+    }
+
+    /**
+     * Starts the backend on a worker thread, the main thread is not allowed to open sockets
+     */
+    private static void startBackend() {
+        final IOException[] error = new IOException[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sBackend.start();
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            }
+        }, "fake-books-backend");
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error[0] != null)
+            throw new IllegalStateException("Cannot start the fake Books backend", error[0]);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                delete(child);
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Instrumentation runner of the tests against the fake Books backend
+ */
+package com.exercise.booksexplorer;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.support.test.runner.AndroidJUnitRunner;
+
+/**
+ * Runs the tests on a {@link PerfTestApplication}. The fake backend latency and error rate
+ * can be given as instrumentation arguments, by default the responses take 80 to 300 ms and
+ * never fail:
+ * <pre>
+ * adb shell am instrument -w -e fakeLatencyMs 50,400 -e fakeErrorRate 0.02 \
+ *     com.exercise.booksexplorer.test/com.exercise.booksexplorer.PerfTestRunner
+ * </pre>
+ */
+public class PerfTestRunner extends AndroidJUnitRunner {
+    /**
+     * The backend latency range in milliseconds, "min,max" or a single value
+     */
+    public static final String ARG_LATENCY = "fakeLatencyMs";
+    /**
+     * The share of the backend requests failing, from 0 to 1
+     */
+    public static final String ARG_ERROR_RATE = "fakeErrorRate";
+
+    // A mobile network round trip when no latency is given
+    private static final String DEFAULT_LATENCY = "80,300";
+
+    @Override
+    public Application newApplication(ClassLoader cl, String className, Context context)
+            throws InstantiationException, IllegalAccessException, ClassNotFoundException {
+        return super.newApplication(cl, PerfTestApplication.class.getName(), context);
+    }
+
+    @Override
+    public void onCreate(Bundle arguments) {
+        String[] latency = arguments.getString(ARG_LATENCY, DEFAULT_LATENCY).split(",");
+        PerfTestApplication.getBackend().setLatency(Long.parseLong(latency[0].trim()),
+                Long.parseLong(latency[latency.length - 1].trim()));
+        String errorRate = arguments.getString(ARG_ERROR_RATE);
+        if (errorRate != null)
+            PerfTestApplication.getBackend().setErrorRate(Float.parseFloat(errorRate));
+        super.onCreate(arguments);
+    }
+}
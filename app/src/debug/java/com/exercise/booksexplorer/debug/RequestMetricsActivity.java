@@ -0,0 +1,111 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Debug screen of the request metrics
+ */
+package com.exercise.booksexplorer.debug;
+
+import android.content.Intent;
+import android.databinding.DataBindingUtil;
+import android.os.Bundle;
+import android.support.v7.app.ActionBar;
+import android.view.Menu;
+import android.view.MenuItem;
+
+import com.exercise.booksexplorer.BaseActivity;
+import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.databinding.ActivityRequestMetricsBinding;
+import com.exercise.booksexplorer.util.EventLog;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Presents the report of the {@link com.exercise.booksexplorer.api.RequestMetrics}, the state of the
+ * page loads circuit breaker and the recent events of the {@link EventLog}, refreshed every second.
+ * The report can be shared as text, and is dumped while the screen is open by
+ * <pre>
+ * adb shell dumpsys activity top
+ * </pre>
+ * The screen is part of the debug builds only, opened by its class name from the search screen menu.
+ */
+public class RequestMetricsActivity extends BaseActivity {
+    private static final long REFRESH_MILLIS = 1000;
+
+    private ActivityRequestMetricsBinding mBinding;
+
+    private final Runnable mRefresh = new Runnable() {
+        @Override
+        public void run() {
+            mBinding.reportTextview.setText(report());
+            mBinding.reportTextview.postDelayed(this, REFRESH_MILLIS);
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        mBinding = DataBindingUtil.setContentView(this, R.layout.activity_request_metrics);
+        setSupportActionBar(mBinding.toolbar);
+        ActionBar actionBar = getSupportActionBar();
+        if (actionBar != null)
+            actionBar.setDisplayHomeAsUpEnabled(true);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mRefresh.run();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        mBinding.reportTextview.removeCallbacks(mRefresh);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_request_metrics, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.action_share:
+                Intent share = new Intent(Intent.ACTION_SEND)
+                        .setType("text/plain")
+                        .putExtra(Intent.EXTRA_SUBJECT, getString(R.string.request_metrics_title))
+                        .putExtra(Intent.EXTRA_TEXT, report());
+                startActivity(Intent.createChooser(share, getString(R.string.action_share_report)));
+                return true;
+            case R.id.action_reset:
+                getRequestMetrics().reset();
+                mBinding.reportTextview.setText(report());
+                return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        onBackPressed();
+        return true;
+    }
+
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.print(report());
+    }
+
+    private String report() {
+        StringWriter events = new StringWriter();
+        PrintWriter out = new PrintWriter(events);
+        EventLog.dump(out);
+        out.flush();
+        return getRequestMetrics().report() + getVolumesRepository().getCircuitBreaker() + "\n" + events;
+    }
+}
@@ -12,6 +12,14 @@ import android.support.design.widget.Snackbar;
 import android.support.v7.app.AppCompatActivity;
 import android.view.View;
 
+import com.exercise.booksexplorer.api.NetworkQualityEstimator;
+import com.exercise.booksexplorer.api.QueryHistory;
+import com.exercise.booksexplorer.api.RequestMetrics;
+import com.exercise.booksexplorer.api.ResultsSnapshot;
+import com.exercise.booksexplorer.api.VolumeStore;
+import com.exercise.booksexplorer.api.VolumesEnricher;
+import com.exercise.booksexplorer.api.VolumesRepository;
+import com.exercise.booksexplorer.util.IoScheduler;
 import com.google.api.services.books.Books;
 
 public class BaseActivity extends AppCompatActivity {
@@ -29,6 +37,38 @@ public class BaseActivity extends AppCompatActivity {
         return getApp().getAppComponent().books();
     }
 
+    protected IoScheduler getIoScheduler() {
+        return getApp().getAppComponent().ioScheduler();
+    }
+
+    protected VolumesRepository getVolumesRepository() {
+        return getApp().getAppComponent().volumesRepository();
+    }
+
+    protected VolumeStore getVolumeStore() {
+        return getApp().getAppComponent().volumeStore();
+    }
+
+    protected VolumesEnricher getVolumesEnricher() {
+        return getApp().getAppComponent().volumesEnricher();
+    }
+
+    protected ResultsSnapshot getResultsSnapshot() {
+        return getApp().getAppComponent().resultsSnapshot();
+    }
+
+    protected QueryHistory getQueryHistory() {
+        return getApp().getAppComponent().queryHistory();
+    }
+
+    protected RequestMetrics getRequestMetrics() {
+        return getApp().getAppComponent().requestMetrics();
+    }
+
+    protected NetworkQualityEstimator getNetworkQuality() {
+        return getApp().getAppComponent().networkQualityEstimator();
+    }
+
     protected void showError(String errorMessage) {
         View rootView = findViewById(R.id.app_bar);
         final Snackbar snack = Snackbar.make(rootView, errorMessage, Snackbar.LENGTH_INDEFINITE);
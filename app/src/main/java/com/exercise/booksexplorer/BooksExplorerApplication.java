@@ -6,25 +6,90 @@
 package com.exercise.booksexplorer;
 
 import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.os.Trace;
+import android.util.Log;
 
+import com.exercise.booksexplorer.books.CacheWarmingJobService;
 import com.exercise.booksexplorer.dagger.components.AppComponent;
 import com.exercise.booksexplorer.dagger.components.DaggerAppComponent;
 import com.exercise.booksexplorer.dagger.modules.AppModule;
+import com.exercise.booksexplorer.util.EventLog;
+import com.exercise.booksexplorer.util.StartupTrace;
 
 import io.reactivex.internal.functions.Functions;
 import io.reactivex.plugins.RxJavaPlugins;
 
 public class BooksExplorerApplication extends Application {
+  // One in N of the debug events is kept by the release builds
+  private static final int RELEASE_EVENTS_SAMPLE_RATE = 10;
+
   private AppComponent mAppComponent;
 
   public void onCreate() {
+    StartupTrace.onApplicationCreate();
+    Trace.beginSection("BooksExplorerApplication.onCreate");
     super.onCreate();
 
-    mAppComponent = DaggerAppComponent.builder()
+    // the debug builds keep and echo every event, the release builds a sample without logcat
+    if (BuildConfig.DEBUG)
+      EventLog.configure(Log.DEBUG, 1, true);
+    else
+      EventLog.configure(Log.DEBUG, RELEASE_EVENTS_SAMPLE_RATE, false);
+
+    // the graph is built lazily, nothing is instantiated until requested
+    mAppComponent = createAppComponent();
+
+    RxJavaPlugins.setErrorHandler(Functions.<Throwable>emptyConsumer());
+    warmUp();
+    registerNetworkChanges();
+    Trace.endSection();
+  }
+
+  /**
+   * Builds the application component, overridden by the tests replacing its modules
+   */
+  protected AppComponent createAppComponent() {
+    return DaggerAppComponent.builder()
             .appModule(new AppModule(this))
             .build();
+  }
 
-    RxJavaPlugins.setErrorHandler(Functions.<Throwable>emptyConsumer());
+  /**
+   * Builds the API client and reads the local index in background, while the first activity starts,
+   * and schedules the warming of the caches off the main thread
+   */
+  private void warmUp() {
+    mAppComponent.ioScheduler().execute(new Runnable() {
+      @Override
+      public void run() {
+        Trace.beginSection("BooksExplorerApplication.warmUp");
+        try {
+          mAppComponent.books();
+          mAppComponent.volumesIndex().getVolumeCount();
+          CacheWarmingJobService.schedule(BooksExplorerApplication.this);
+        } finally {
+          Trace.endSection();
+        }
+      }
+    });
+  }
+
+  /**
+   * Restarts the network quality estimate when the device switches networks, like from Wi-Fi to cellular
+   */
+  private void registerNetworkChanges() {
+    registerReceiver(new BroadcastReceiver() {
+      @Override
+      public void onReceive(Context context, Intent intent) {
+        if (!isInitialStickyBroadcast())
+          mAppComponent.networkQualityEstimator().reset();
+      }
+    }, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
   }
 
   public AppComponent getAppComponent() {
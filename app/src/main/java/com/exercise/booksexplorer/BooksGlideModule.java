@@ -0,0 +1,67 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Glide configuration of the application
+ */
+package com.exercise.booksexplorer;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * Sizes the bitmap pool and the memory cache from the memory class of the device, so the covers
+ * decoded while scrolling reuse pooled bitmaps instead of allocating new ones.
+ * The cover URLs never change their image, so both the downloaded and the resized covers are kept
+ * on disk and no request is revalidated. The covers are opaque, decoded in RGB_565 at half the
+ * memory of ARGB_8888, Glide still uses ARGB_8888 for the images with alpha.
+ * Generates the {@code GlideApp} API used instead of {@code Glide}.
+ */
+@GlideModule
+public final class BooksGlideModule extends AppGlideModule {
+  // Fractions of the application heap given to the decoded bitmaps
+  private static final int MEMORY_CACHE_DIVIDER = 8;
+  private static final int BITMAP_POOL_DIVIDER = 8;
+  private static final int LOW_RAM_DIVIDER = 2;
+
+  private static final String DISK_CACHE_NAME = "covers";
+  private static final long DISK_CACHE_SIZE = 50 * 1024 * 1024;
+
+  @Override
+  public void applyOptions(Context context, GlideBuilder builder) {
+    ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+    long heapSize = 16L * 1024 * 1024;
+    boolean lowRam = false;
+    if (activityManager != null) {
+      heapSize = activityManager.getMemoryClass() * 1024L * 1024;
+      lowRam = activityManager.isLowRamDevice();
+    }
+    long memoryCacheSize = heapSize / MEMORY_CACHE_DIVIDER;
+    long bitmapPoolSize = heapSize / BITMAP_POOL_DIVIDER;
+    if (lowRam) {
+      memoryCacheSize /= LOW_RAM_DIVIDER;
+      bitmapPoolSize /= LOW_RAM_DIVIDER;
+    }
+
+    builder.setMemoryCache(new LruResourceCache(memoryCacheSize))
+            .setBitmapPool(new LruBitmapPool(bitmapPoolSize))
+            .setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_SIZE))
+            .setDefaultRequestOptions(new RequestOptions()
+                    .format(DecodeFormat.PREFER_RGB_565)
+                    .diskCacheStrategy(DiskCacheStrategy.ALL));
+  }
+
+  @Override
+  public boolean isManifestParsingEnabled() {
+    return false;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Compact immutable representation of a volume in the search results
+ */
+package com.exercise.booksexplorer.api;
+
+import com.exercise.booksexplorer.util.StringUtils;
+import com.google.api.services.books.model.Volume;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Holds only the volume fields presented by the search results list.
+ * Unlike {@link Volume} it is not backed by a map, so it costs a few plain fields per result.
+ * The display strings of the list rows are computed on creation, which happens on the decoding
+ * thread, so binding a row only assigns them, and so is the text matched by the local filtering.
+ */
+public final class BookSummary {
+    /**
+     * Partial response selector requesting the fields of this class only
+     */
+    public static final String LIST_FIELDS =
+            "totalItems,items(id,etag,volumeInfo(title,authors,description,imageLinks/thumbnail))";
+
+    // The length of the description presented by the list rows, beyond what fits in their lines
+    static final int DESCRIPTION_PREVIEW_LENGTH = 400;
+
+    private final String mId;
+    private final String mEtag;
+    private final String mTitle;
+    private final List<String> mAuthors;
+    private final String mDescription;
+    private final String mThumbnailUrl;
+    private final String mAuthorsText;
+    private final String mDescriptionPreview;
+    private final String mSearchText;
+
+    public BookSummary(String id, String etag, String title, List<String> authors, String description,
+                       String thumbnailUrl) {
+        mId = id;
+        mEtag = etag;
+        mTitle = title;
+        mAuthors = authors == null ? Collections.<String>emptyList() : Collections.unmodifiableList(authors);
+        mDescription = description;
+        mThumbnailUrl = thumbnailUrl;
+        mAuthorsText = StringUtils.concat(mAuthors);
+        mDescriptionPreview = StringUtils.truncate(description, DESCRIPTION_PREVIEW_LENGTH);
+        mSearchText = ((title != null ? title : "") + " " + mAuthorsText + " "
+                + (description != null ? description : "")).toLowerCase(Locale.getDefault());
+    }
+
+    /**
+     * Creates a summary from the fields of a volume
+     */
+    public static BookSummary from(Volume volume) {
+        Volume.VolumeInfo info = volume.getVolumeInfo();
+        if (info == null)
+            return new BookSummary(volume.getId(), volume.getEtag(), null, null, null, null);
+        return new BookSummary(volume.getId(), volume.getEtag(), info.getTitle(), info.getAuthors(),
+                info.getDescription(), info.getImageLinks() != null ? info.getImageLinks().getThumbnail() : null);
+    }
+
+    public String getId() {
+        return mId;
+    }
+
+    public String getEtag() {
+        return mEtag;
+    }
+
+    public String getTitle() {
+        return mTitle;
+    }
+
+    public List<String> getAuthors() {
+        return mAuthors;
+    }
+
+    public String getDescription() {
+        return mDescription;
+    }
+
+    public String getThumbnailUrl() {
+        return mThumbnailUrl;
+    }
+
+    /**
+     * @return the authors joined with comma separator
+     */
+    public String getAuthorsText() {
+        return mAuthorsText;
+    }
+
+    /**
+     * @return the beginning of the description presented by the list rows
+     */
+    public String getDescriptionPreview() {
+        return mDescriptionPreview;
+    }
+
+    /**
+     * @return the title, authors and description in lower case, matched by the local filtering
+     */
+    public String getSearchText() {
+        return mSearchText;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof BookSummary))
+            return false;
+        BookSummary that = (BookSummary) o;
+        return equal(mId, that.mId) && equal(mEtag, that.mEtag) && equal(mTitle, that.mTitle)
+                && mAuthors.equals(that.mAuthors) && equal(mDescription, that.mDescription)
+                && equal(mThumbnailUrl, that.mThumbnailUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return mId != null ? mId.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BookSummary{id=" + mId + ", title=" + mTitle + "}";
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Fails the requests fast while the backend is down
+ */
+package com.exercise.booksexplorer.api;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops the requests to a backend that keeps failing. After a number of consecutive transient failures the
+ * circuit opens and the requests fail at once with {@link OpenException}, until a cooldown lets a single probe
+ * request through. The circuit closes if the probe succeeds and opens for another cooldown if it fails.
+ * The callers report the outcome of every allowed request. Thread safe.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Thrown instead of performing a request while the circuit is open
+     */
+    public static class OpenException extends IOException {
+        OpenException(String message) {
+            super(message);
+        }
+    }
+
+    private final int mFailureThreshold;
+    private final long mOpenMillis;
+
+    private State mState = State.CLOSED;
+    private int mConsecutiveFailures;
+    // the time the circuit opened or the probe started at, in milliseconds
+    private long mSinceMillis;
+    private boolean mProbing;
+    private long mOpenedCount;
+    private long mRejectedCount;
+
+    /**
+     * @param failureThreshold the number of consecutive failures opening the circuit
+     * @param openMillis       the time the circuit stays open before a probe request
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        mFailureThreshold = failureThreshold;
+        mOpenMillis = openMillis;
+    }
+
+    /**
+     * Checks if a request can be performed, in the half open state only the probe can
+     *
+     * @throws OpenException if the circuit is open
+     */
+    public synchronized void check() throws OpenException {
+        long now = now();
+        switch (mState) {
+            case CLOSED:
+                return;
+            case OPEN:
+                if (now - mSinceMillis >= mOpenMillis) {
+                    mState = State.HALF_OPEN;
+                    startProbe(now);
+                    return;
+                }
+                break;
+            case HALF_OPEN:
+                // another probe if the previous one never reported
+                if (!mProbing || now - mSinceMillis >= mOpenMillis) {
+                    startProbe(now);
+                    return;
+                }
+                break;
+        }
+        mRejectedCount++;
+        throw new OpenException("Backend unavailable, retrying in "
+                + Math.max(0, mSinceMillis + mOpenMillis - now) + " ms");
+    }
+
+    /**
+     * Reports an allowed request that reached the backend, closing the circuit
+     */
+    public synchronized void onSuccess() {
+        mState = State.CLOSED;
+        mConsecutiveFailures = 0;
+        mProbing = false;
+    }
+
+    /**
+     * Reports an allowed request that failed transiently
+     */
+    public synchronized void onFailure() {
+        mConsecutiveFailures++;
+        if (mState == State.OPEN)
+            return;
+        if (mState == State.HALF_OPEN || mConsecutiveFailures >= mFailureThreshold) {
+            mOpenedCount++;
+            mState = State.OPEN;
+            mSinceMillis = now();
+            mProbing = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return mState;
+    }
+
+    /**
+     * @return true if requests are performed without restriction
+     */
+    public synchronized boolean isClosed() {
+        return mState == State.CLOSED;
+    }
+
+    /**
+     * @return the number of times the circuit opened
+     */
+    public synchronized long getOpenedCount() {
+        return mOpenedCount;
+    }
+
+    /**
+     * @return the number of requests failed fast
+     */
+    public synchronized long getRejectedCount() {
+        return mRejectedCount;
+    }
+
+    private void startProbe(long now) {
+        mProbing = true;
+        mSinceMillis = now;
+    }
+
+    /**
+     * @return a monotonic time in milliseconds
+     */
+    long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "CircuitBreaker{state=%s, failures=%d, opened=%d, rejected=%d}",
+                mState, mConsecutiveFailures, mOpenedCount, mRejectedCount);
+    }
+}
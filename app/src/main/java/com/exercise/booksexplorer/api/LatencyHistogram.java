@@ -0,0 +1,76 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Fixed buckets latency histogram
+ */
+package com.exercise.booksexplorer.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts latencies in buckets of roughly logarithmic bounds, from 1 ms to 30 s, so recording costs
+ * no allocation and the percentiles are known to the bucket. Thread safe.
+ */
+public final class LatencyHistogram {
+    // Upper bounds of the buckets in milliseconds, the last bucket is unbounded
+    private static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000 };
+
+    private final long[] mCounts = new long[BOUNDS_MILLIS.length + 1];
+    private long mCount;
+    private long mTotalNanos;
+    private long mMaxNanos;
+
+    public synchronized void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket])
+            bucket++;
+        mCounts[bucket]++;
+        mCount++;
+        mTotalNanos += nanos;
+        mMaxNanos = Math.max(mMaxNanos, nanos);
+    }
+
+    public synchronized long getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the mean latency in milliseconds, 0 if none recorded
+     */
+    public synchronized long getMeanMillis() {
+        return mCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(mTotalNanos / mCount);
+    }
+
+    /**
+     * @return the maximum latency in milliseconds, 0 if none recorded
+     */
+    public synchronized long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mMaxNanos);
+    }
+
+    /**
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound in milliseconds of the bucket holding the percentile, bounded by the maximum
+     */
+    public synchronized long getPercentileMillis(int percentile) {
+        if (mCount == 0)
+            return 0;
+        long rank = (mCount * percentile + 99) / 100;
+        long seen = 0;
+        for (int bucket = 0; bucket < BOUNDS_MILLIS.length; bucket++) {
+            seen += mCounts[bucket];
+            if (seen >= rank)
+                return Math.min(BOUNDS_MILLIS[bucket], getMaxMillis());
+        }
+        return getMaxMillis();
+    }
+
+    public synchronized void reset() {
+        for (int bucket = 0; bucket < mCounts.length; bucket++)
+            mCounts[bucket] = 0;
+        mCount = 0;
+        mTotalNanos = 0;
+        mMaxNanos = 0;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Network quality estimated from the recent requests
+ */
+package com.exercise.booksexplorer.api;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the round trip time and the throughput of the network from the requests performed,
+ * as moving averages weighting the recent requests most, and classifies the network by them.
+ * The class drives the size of the result pages, how many of them are requested ahead and the
+ * quality of the covers: a fast network gets fewer, larger pages and full covers, a slow one gets
+ * pages requested early and small covers. The pages are multiples of the default page, which the
+ * cache stores them by, so the cached pages are found whatever the network.
+ * The throughput is measured on the bytes received, before their decompression. Thread safe.
+ */
+public class NetworkQualityEstimator {
+    // The weight of a new sample in the moving averages
+    private static final double SAMPLE_WEIGHT = 0.3;
+    // The number of samples before the network is classified
+    private static final int MIN_SAMPLES = 2;
+    // The smallest compressed response measuring the throughput, the smaller ones are dominated by the round trip
+    private static final long MIN_THROUGHPUT_BYTES = 4 * 1024;
+    // The largest page the API returns
+    private static final int MAX_PAGE_SIZE = 40;
+
+    /**
+     * The class of the network, with the pagination it gets
+     */
+    public enum Quality {
+        // not enough requests yet, the defaults apply
+        UNKNOWN(1, 0, false),
+        POOR(1, 4, true),
+        MODERATE(1, 3, false),
+        GOOD(2, 2, false),
+        EXCELLENT(2, 1, false);
+
+        // the number of default pages a result page holds
+        final int mPageMultiple;
+        final int mPrefetchPages;
+        final boolean mSmallCovers;
+
+        Quality(int pageMultiple, int prefetchPages, boolean smallCovers) {
+            mPageMultiple = pageMultiple;
+            mPrefetchPages = prefetchPages;
+            mSmallCovers = smallCovers;
+        }
+    }
+
+    // Upper bounds of the round trip time of POOR, MODERATE and GOOD, in milliseconds
+    private static final long[] RTT_BOUNDS_MILLIS = { 1500, 600, 200 };
+    // Lower bounds of the throughput of MODERATE, GOOD and EXCELLENT, in kilobits per second
+    private static final long[] THROUGHPUT_BOUNDS_KBPS = { 150, 550, 2000 };
+
+    private double mRttMillis = -1;
+    private double mThroughputKbps = -1;
+    private int mRttSamples;
+    private int mThroughputSamples;
+    private Quality mQuality = Quality.UNKNOWN;
+
+    /**
+     * Adds the measures of a request that reached the server
+     *
+     * @param ttfbNanos     the time from sending the request to the response headers
+     * @param bytes         the size of the response body as received, -1 if unknown
+     * @param downloadNanos the time spent reading the response body
+     */
+    public synchronized void onResponse(long ttfbNanos, long bytes, long downloadNanos) {
+        if (ttfbNanos >= 0) {
+            mRttMillis = average(mRttMillis, ttfbNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+            mRttSamples++;
+        }
+        if (bytes >= MIN_THROUGHPUT_BYTES && downloadNanos > 0) {
+            double kbps = bytes * 8.0 / (downloadNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+            mThroughputKbps = average(mThroughputKbps, kbps);
+            mThroughputSamples++;
+        }
+        mQuality = classify();
+    }
+
+    /**
+     * Forgets the estimates, when the device switches networks
+     */
+    public synchronized void reset() {
+        mRttMillis = -1;
+        mThroughputKbps = -1;
+        mRttSamples = 0;
+        mThroughputSamples = 0;
+        mQuality = Quality.UNKNOWN;
+    }
+
+    public synchronized Quality getQuality() {
+        return mQuality;
+    }
+
+    /**
+     * @return the estimated round trip time in milliseconds, -1 if unknown
+     */
+    public synchronized long getRttMillis() {
+        return Math.round(mRttMillis);
+    }
+
+    /**
+     * @return the estimated throughput in kilobits per second, -1 if unknown
+     */
+    public synchronized long getThroughputKbps() {
+        return Math.round(mThroughputKbps);
+    }
+
+    /**
+     * @return the number of items of the result pages, a multiple of the default size up to the API limit of 40
+     */
+    public synchronized int getPageSize(int defaultSize) {
+        int multiple = mQuality.mPageMultiple;
+        while (multiple > 1 && defaultSize * multiple > MAX_PAGE_SIZE)
+            multiple--;
+        return defaultSize * multiple;
+    }
+
+    /**
+     * @return the number of result pages to request ahead of the last visible item
+     */
+    public synchronized int getPrefetchPages(int defaultPages) {
+        return mQuality == Quality.UNKNOWN ? defaultPages : mQuality.mPrefetchPages;
+    }
+
+    /**
+     * @return true if the covers should be loaded in their small size
+     */
+    public synchronized boolean useSmallCovers() {
+        return mQuality.mSmallCovers;
+    }
+
+    private double average(double average, double sample) {
+        return average < 0 ? sample : average + SAMPLE_WEIGHT * (sample - average);
+    }
+
+    /**
+     * @return the lowest class by the round trip time and, if measured, the throughput
+     */
+    private Quality classify() {
+        if (mRttSamples < MIN_SAMPLES)
+            return Quality.UNKNOWN;
+        Quality[] classes = { Quality.POOR, Quality.MODERATE, Quality.GOOD };
+        int byRtt = classes.length;
+        for (int i = 0; i < RTT_BOUNDS_MILLIS.length; i++) {
+            if (mRttMillis > RTT_BOUNDS_MILLIS[i]) {
+                byRtt = i;
+                break;
+            }
+        }
+        int byThroughput = classes.length;
+        if (mThroughputSamples >= MIN_SAMPLES) {
+            for (int i = 0; i < THROUGHPUT_BOUNDS_KBPS.length; i++) {
+                if (mThroughputKbps < THROUGHPUT_BOUNDS_KBPS[i]) {
+                    byThroughput = i;
+                    break;
+                }
+            }
+        }
+        int index = Math.min(byRtt, byThroughput);
+        return index < classes.length ? classes[index] : Quality.EXCELLENT;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "network: %s, rtt %d ms, %d kbps, %d samples",
+                mQuality.name().toLowerCase(Locale.US), getRttMillis(), getThroughputKbps(), mRttSamples);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Google HTTP client transport backed by OkHttp
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.HttpMethod;
+import okio.BufferedSink;
+
+/**
+ * Performs the requests of the Google API client with an {@link OkHttpClient}, sharing its
+ * connection pool and HTTP/2 connections between all requests.
+ * <p>
+ * The Accept-Encoding header of the API client is left out so OkHttp negotiates gzip itself and
+ * decompresses transparently. Responses larger than the configured limit, after decompression,
+ * fail with an {@link IOException} instead of being read into memory.
+ */
+public class OkHttpTransport extends HttpTransport {
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private final OkHttpClient mClient;
+    private final long mMaxResponseSize;
+
+    /**
+     * @param client          the configured client
+     * @param maxResponseSize the maximum size of a response body in bytes
+     */
+    public OkHttpTransport(OkHttpClient client, long maxResponseSize) {
+        mClient = client;
+        mMaxResponseSize = maxResponseSize;
+    }
+
+    @Override
+    public boolean supportsMethod(String method) {
+        return true;
+    }
+
+    @Override
+    protected LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+        return new OkHttpRequest(method, url);
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        mClient.connectionPool().evictAll();
+    }
+
+    private class OkHttpRequest extends LowLevelHttpRequest {
+        private final String mMethod;
+        private final Request.Builder mBuilder;
+        private int mConnectTimeout = -1;
+        private int mReadTimeout = -1;
+
+        OkHttpRequest(String method, String url) {
+            mMethod = method;
+            mBuilder = new Request.Builder().url(url);
+        }
+
+        @Override
+        public void addHeader(String name, String value) throws IOException {
+            if (!ACCEPT_ENCODING.equalsIgnoreCase(name))
+                mBuilder.addHeader(name, value);
+        }
+
+        @Override
+        public void setTimeout(int connectTimeout, int readTimeout) throws IOException {
+            mConnectTimeout = connectTimeout;
+            mReadTimeout = readTimeout;
+        }
+
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+            if (getContentEncoding() != null)
+                mBuilder.addHeader("Content-Encoding", getContentEncoding());
+            mBuilder.method(mMethod, body());
+            return new OkHttpResponse(client().newCall(mBuilder.build()).execute());
+        }
+
+        private RequestBody body() {
+            final StreamingContent content = getStreamingContent();
+            if (content == null)
+                return HttpMethod.requiresRequestBody(mMethod) ? RequestBody.create(null, new byte[0]) : null;
+            final MediaType contentType = getContentType() == null ? null : MediaType.parse(getContentType());
+            return new RequestBody() {
+                @Override
+                public MediaType contentType() {
+                    return contentType;
+                }
+
+                @Override
+                public long contentLength() {
+                    return getContentLength();
+                }
+
+                @Override
+                public void writeTo(BufferedSink sink) throws IOException {
+                    content.writeTo(sink.outputStream());
+                }
+            };
+        }
+
+        /**
+         * @return the shared client, or a client with the request timeouts sharing its pool
+         */
+        private OkHttpClient client() {
+            if ((mConnectTimeout < 0 || mConnectTimeout == mClient.connectTimeoutMillis())
+                    && (mReadTimeout < 0 || mReadTimeout == mClient.readTimeoutMillis()))
+                return mClient;
+            OkHttpClient.Builder builder = mClient.newBuilder();
+            if (mConnectTimeout >= 0)
+                builder.connectTimeout(mConnectTimeout, TimeUnit.MILLISECONDS);
+            if (mReadTimeout >= 0)
+                builder.readTimeout(mReadTimeout, TimeUnit.MILLISECONDS);
+            return builder.build();
+        }
+    }
+
+    private class OkHttpResponse extends LowLevelHttpResponse {
+        private final Response mResponse;
+        private final Headers mHeaders;
+
+        OkHttpResponse(Response response) {
+            mResponse = response;
+            mHeaders = response.headers();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            ResponseBody body = mResponse.body();
+            if (body == null)
+                return null;
+            if (body.contentLength() > mMaxResponseSize)
+                throw new IOException("Response of " + body.contentLength() + " bytes exceeds the limit");
+            return new LimitedInputStream(body.byteStream(), mMaxResponseSize);
+        }
+
+        @Override
+        public String getContentEncoding() throws IOException {
+            return mResponse.header("Content-Encoding");
+        }
+
+        @Override
+        public long getContentLength() throws IOException {
+            ResponseBody body = mResponse.body();
+            return body == null ? 0 : body.contentLength();
+        }
+
+        @Override
+        public String getContentType() throws IOException {
+            return mResponse.header("Content-Type");
+        }
+
+        @Override
+        public String getStatusLine() throws IOException {
+            return mResponse.protocol().toString().toUpperCase() + " " + mResponse.code() + " " + mResponse.message();
+        }
+
+        @Override
+        public int getStatusCode() throws IOException {
+            return mResponse.code();
+        }
+
+        @Override
+        public String getReasonPhrase() throws IOException {
+            return mResponse.message();
+        }
+
+        @Override
+        public int getHeaderCount() throws IOException {
+            return mHeaders.size();
+        }
+
+        @Override
+        public String getHeaderName(int index) throws IOException {
+            return mHeaders.name(index);
+        }
+
+        @Override
+        public String getHeaderValue(int index) throws IOException {
+            return mHeaders.value(index);
+        }
+
+        @Override
+        public void disconnect() throws IOException {
+            mResponse.close();
+        }
+    }
+
+    /**
+     * Fails the reads going beyond the limit
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long mRemaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            mRemaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1)
+                consume(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if (read > 0)
+                consume(read);
+            return read;
+        }
+
+        private void consume(int count) throws IOException {
+            mRemaining -= count;
+            if (mRemaining < 0)
+                throw new IOException("Response exceeds the size limit");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Recent and pinned search queries
+ */
+package com.exercise.booksexplorer.api;
+
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Remembers the queries performed recently and the queries pinned by the user, the familiar searches
+ * whose first results are kept warm in the caches, see
+ * {@link com.exercise.booksexplorer.books.CacheWarmingJobService}. The queries are compared as normalized
+ * by the {@link VolumesCache}, and kept in the given preferences. Thread safe.
+ */
+public class QueryHistory {
+    private static final String KEY_RECENT = "recent";
+    private static final String KEY_PINNED = "pinned";
+    // The queries are single line, the lists are stored as lines
+    private static final String SEPARATOR = "\n";
+
+    private final SharedPreferences mPreferences;
+    private final int mMaxRecent;
+    private List<String> mRecent;
+    private List<String> mPinned;
+
+    /**
+     * @param preferences the storage of the queries
+     * @param maxRecent   the number of recent queries remembered
+     */
+    public QueryHistory(SharedPreferences preferences, int maxRecent) {
+        mPreferences = preferences;
+        mMaxRecent = maxRecent;
+    }
+
+    /**
+     * Records a query performed, as the most recent
+     */
+    public synchronized void addRecent(String query) {
+        ensureLoaded();
+        if (!move(mRecent, query))
+            return;
+        while (mRecent.size() > mMaxRecent)
+            mRecent.remove(mRecent.size() - 1);
+        save();
+    }
+
+    public synchronized void setPinned(String query, boolean pinned) {
+        ensureLoaded();
+        if (pinned) {
+            if (!move(mPinned, query))
+                return;
+        } else if (remove(mPinned, query) == null) {
+            return;
+        }
+        save();
+    }
+
+    public synchronized boolean isPinned(String query) {
+        ensureLoaded();
+        return indexOf(mPinned, query) >= 0;
+    }
+
+    /**
+     * @return the pinned queries followed by the most recent other ones, up to the given number
+     */
+    public synchronized List<String> getFamiliar(int maxQueries) {
+        ensureLoaded();
+        List<String> queries = new ArrayList<>(mPinned);
+        for (String query : mRecent) {
+            if (indexOf(queries, query) < 0)
+                queries.add(query);
+        }
+        return queries.subList(0, Math.min(maxQueries, queries.size()));
+    }
+
+    private void ensureLoaded() {
+        if (mRecent != null)
+            return;
+        mRecent = read(KEY_RECENT);
+        mPinned = read(KEY_PINNED);
+    }
+
+    private List<String> read(String key) {
+        String lines = mPreferences.getString(key, "");
+        if (lines.isEmpty())
+            return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(lines.split(SEPARATOR)));
+    }
+
+    private void save() {
+        // written in background by the preferences
+        mPreferences.edit()
+                .putString(KEY_RECENT, TextUtils.join(SEPARATOR, mRecent))
+                .putString(KEY_PINNED, TextUtils.join(SEPARATOR, mPinned))
+                .apply();
+    }
+
+    /**
+     * Moves the query to the head of the list, adding it if missing
+     *
+     * @return false if the list did not change
+     */
+    private static boolean move(List<String> queries, String query) {
+        String trimmed = query.trim().replace(SEPARATOR, " ");
+        if (trimmed.isEmpty() || (!queries.isEmpty() && queries.get(0).equals(trimmed)))
+            return false;
+        remove(queries, trimmed);
+        queries.add(0, trimmed);
+        return true;
+    }
+
+    private static String remove(List<String> queries, String query) {
+        int index = indexOf(queries, query);
+        return index < 0 ? null : queries.remove(index);
+    }
+
+    private static int indexOf(List<String> queries, String query) {
+        String normalized = VolumesCache.normalizeQuery(query);
+        for (int i = 0; i < queries.size(); i++) {
+            if (VolumesCache.normalizeQuery(queries.get(i)).equals(normalized))
+                return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Hedged requests against the latency tail
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Performs a request, and a duplicate of it if no response arrived within the usual latency of the
+ * endpoint, the 95th percentile of its time to first byte. The first successful response wins and the
+ * other one is disconnected when it arrives, so about one request in twenty costs a second call, while a
+ * single slow server or connection no longer decides the latency. A failed duplicate, like a 503 of an
+ * overloaded backend, never cancels the request, which keeps its own outcome.
+ * <p>
+ * The request runs on the calling thread, only the duplicate runs on the given executor, so a request
+ * holds a second thread only while hedged. When the duplicate wins, the OkHttp call of the request is
+ * cancelled through its {@link RequestTrace} so the calling thread returns at once; with another HTTP
+ * transport the calling thread returns when its own call ends. When the executor is full the request
+ * is not hedged.
+ */
+public class RequestHedger {
+    private final Executor mExecutor;
+    private final Scheduler mTimer;
+    private final LatencyHistogram mLatencies;
+    private final int mMinSamples;
+    private final long mDefaultDelayMillis;
+    private final long mMinDelayMillis;
+
+    /**
+     * @param executor           the executor performing the duplicate requests
+     * @param timer              the scheduler of the hedging delays
+     * @param latencies          the latencies of the endpoint
+     * @param minSamples         the number of latencies needed to trust their percentile
+     * @param defaultDelayMillis the hedging delay until enough latencies are recorded
+     * @param minDelayMillis     the lower bound of the hedging delay
+     */
+    public RequestHedger(Executor executor, Scheduler timer, LatencyHistogram latencies, int minSamples,
+                         long defaultDelayMillis, long minDelayMillis) {
+        mExecutor = executor;
+        mTimer = timer;
+        mLatencies = latencies;
+        mMinSamples = minSamples;
+        mDefaultDelayMillis = defaultDelayMillis;
+        mMinDelayMillis = minDelayMillis;
+    }
+
+    /**
+     * @return the time to wait for a response before sending a duplicate request, in milliseconds
+     */
+    public long getDelayMillis() {
+        if (mLatencies.getCount() < mMinSamples)
+            return mDefaultDelayMillis;
+        return Math.max(mMinDelayMillis, mLatencies.getPercentileMillis(95));
+    }
+
+    /**
+     * Performs the request on the calling thread, hedged if slow. The request is traced, the connection
+     * phases of the duplicate are not.
+     *
+     * @param request performs one call of the request, called twice if hedged
+     * @param trace   the trace of the request
+     * @return the first response
+     */
+    public HttpResponse execute(final Callable<HttpResponse> request, RequestTrace trace) throws IOException {
+        final Race race = new Race(trace);
+        Disposable hedge = mTimer.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                race.hedge(request);
+            }
+        }, getDelayMillis(), TimeUnit.MILLISECONDS);
+        Outcome outcome;
+        trace.attach();
+        try {
+            outcome = new Outcome(call(request), null);
+        } catch (IOException | RuntimeException e) {
+            outcome = new Outcome(null, e);
+        } finally {
+            trace.detach();
+            hedge.dispose();
+        }
+        return race.decide(outcome);
+    }
+
+    private static HttpResponse call(Callable<HttpResponse> request) throws IOException {
+        try {
+            return request.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void disconnect(HttpResponse response) {
+        try {
+            response.disconnect();
+        } catch (IOException e) {
+            // not used anymore
+        }
+    }
+
+    /**
+     * The result of one call, a response or a failure
+     */
+    private static class Outcome {
+        final HttpResponse mResponse;
+        final Exception mError;
+
+        Outcome(HttpResponse response, Exception error) {
+            mResponse = response;
+            mError = error;
+        }
+
+        /**
+         * @return true for a successful response or a Not Modified one, the outcomes allowed to win
+         */
+        boolean isAnswer() {
+            return mResponse != null || mError instanceof HttpResponseException
+                    && ((HttpResponseException) mError).getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED;
+        }
+
+        HttpResponse get() throws IOException {
+            if (mError instanceof RuntimeException)
+                throw (RuntimeException) mError;
+            if (mError != null)
+                throw (IOException) mError;
+            return mResponse;
+        }
+    }
+
+    /**
+     * The request on the calling thread and its duplicate, until the winner is decided
+     */
+    private class Race {
+        private final RequestTrace mTrace;
+        private boolean mHedged;
+        private Outcome mHedgeOutcome;
+        private boolean mHedgeWon;
+        private boolean mRequestDone;
+        private boolean mDecided;
+
+        Race(RequestTrace trace) {
+            mTrace = trace;
+        }
+
+        /**
+         * Submits the duplicate, unless the request is done or the executor is full
+         */
+        synchronized void hedge(final Callable<HttpResponse> request) {
+            if (mRequestDone || mDecided)
+                return;
+            try {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        Outcome outcome;
+                        try {
+                            outcome = new Outcome(call(request), null);
+                        } catch (IOException | RuntimeException e) {
+                            outcome = new Outcome(null, e);
+                        }
+                        report(outcome);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+            mHedged = true;
+            mTrace.onHedge();
+        }
+
+        /**
+         * Takes the outcome of the duplicate. An answer while the request is in progress wins and cancels it,
+         * a failure is kept only for a failed request to return, see {@link #decide(Outcome)}.
+         */
+        synchronized void report(Outcome outcome) {
+            if (mDecided) {
+                if (outcome.mResponse != null)
+                    disconnect(outcome.mResponse);
+                return;
+            }
+            mHedgeOutcome = outcome;
+            if (outcome.isAnswer()) {
+                mHedgeWon = true;
+                if (!mRequestDone)
+                    mTrace.cancelCall();
+            }
+            notifyAll();
+        }
+
+        /**
+         * Decides the winner once the request on the calling thread is done. A failure of the request
+         * lets the duplicate in progress win.
+         *
+         * @return the response of the winner
+         */
+        synchronized HttpResponse decide(Outcome outcome) throws IOException {
+            mRequestDone = true;
+            try {
+                while (!mHedgeWon && !outcome.isAnswer() && mHedged && mHedgeOutcome == null)
+                    wait();
+            } catch (InterruptedException e) {
+                mDecided = true;
+                throw new InterruptedIOException("Interrupted waiting for the response");
+            }
+            mDecided = true;
+            if (!mHedgeWon)
+                return outcome.get();
+            if (outcome.mResponse != null)
+                disconnect(outcome.mResponse);
+            mTrace.onHedgeWon();
+            return mHedgeOutcome.get();
+        }
+    }
+}
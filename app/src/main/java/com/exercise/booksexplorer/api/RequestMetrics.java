@@ -0,0 +1,257 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Latency and outcome metrics of the Books requests
+ */
+package com.exercise.booksexplorer.api;
+
+import com.exercise.booksexplorer.util.Tracing;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregates the {@link RequestTrace}s of the Books requests into latency histograms per endpoint
+ * and phase, with the bytes received, the cache results and the errors. The report is shown by the
+ * request metrics debug screen and can be dumped as text, see {@link #dump(PrintWriter)}. The requests
+ * that reached the server also feed the {@link NetworkQualityEstimator}, unless performed by a background
+ * job. Thread safe.
+ */
+public class RequestMetrics {
+    public static final String VOLUMES_LIST = "volumes.list";
+    public static final String VOLUMES_GET = "volumes.get";
+    public static final String VOLUMES_BATCH = "volumes.batch";
+
+    /**
+     * The phases of a request, not all requests go through all of them
+     */
+    public enum Phase {
+        // waiting for an I/O thread
+        QUEUE("queue"),
+        // DNS lookup and connection of a new connection, including TLS
+        CONNECT("connect"),
+        // TLS handshake of a new connection
+        TLS("tls"),
+        // from sending the request to the response headers, excluding the connection
+        TTFB("ttfb"),
+        // blocked reading the response body
+        DOWNLOAD("download"),
+        // decoding the response, excluding the reads
+        PARSE("parse"),
+        // presenting the result on the main thread
+        BIND("bind"),
+        // from the start on the I/O thread to the decoded result
+        TOTAL("total");
+
+        private final String mLabel;
+
+        Phase(String label) {
+            mLabel = label;
+        }
+
+        public String getLabel() {
+            return mLabel;
+        }
+    }
+
+    /**
+     * How the cache served a request, FALLBACK is an expired entry served while the backend fails
+     */
+    public enum CacheResult {
+        HIT, STALE_HIT, MISS, NOT_MODIFIED, REVALIDATION, FALLBACK
+    }
+
+    private final Map<String, Endpoint> mEndpoints = new LinkedHashMap<>();
+    private final NetworkQualityEstimator mNetworkQuality;
+    private long mSinceMillis = System.currentTimeMillis();
+
+    public RequestMetrics() {
+        this(new NetworkQualityEstimator());
+    }
+
+    public RequestMetrics(NetworkQualityEstimator networkQuality) {
+        mNetworkQuality = networkQuality;
+        mEndpoints.put(VOLUMES_LIST, new Endpoint());
+        mEndpoints.put(VOLUMES_GET, new Endpoint());
+        mEndpoints.put(VOLUMES_BATCH, new Endpoint());
+    }
+
+    /**
+     * Starts the trace of a request on the thread performing it
+     *
+     * @param endpoint      the endpoint requested
+     * @param enqueuedNanos the {@link System#nanoTime()} the request was submitted to the thread at,
+     *                      -1 if performed by the calling thread
+     */
+    public RequestTrace start(String endpoint, long enqueuedNanos) {
+        RequestTrace trace = new RequestTrace(this, endpoint, enqueuedNanos);
+        Tracing.begin(endpoint);
+        return trace;
+    }
+
+    /**
+     * Records the main thread time spent presenting a result of the endpoint
+     */
+    public void recordBind(String endpoint, long nanos) {
+        endpoint(endpoint).mPhases[Phase.BIND.ordinal()].record(nanos);
+    }
+
+    /**
+     * @return the histogram of the phase of the endpoint
+     */
+    public LatencyHistogram getHistogram(String endpoint, Phase phase) {
+        return endpoint(endpoint).mPhases[phase.ordinal()];
+    }
+
+    public NetworkQualityEstimator getNetworkQuality() {
+        return mNetworkQuality;
+    }
+
+    void record(RequestTrace trace) {
+        long ttfb = trace.getPhase(Phase.TTFB);
+        if (ttfb >= 0 && trace.getError() == null && !trace.isBackground())
+            mNetworkQuality.onResponse(ttfb, trace.getWireBytes(), trace.getPhase(Phase.DOWNLOAD));
+        Endpoint endpoint = endpoint(trace.getEndpoint());
+        for (Phase phase : Phase.values()) {
+            long nanos = trace.getPhase(phase);
+            if (nanos >= 0)
+                endpoint.mPhases[phase.ordinal()].record(nanos);
+        }
+        synchronized (endpoint) {
+            endpoint.mRequests++;
+            endpoint.mBytes += trace.getBytes();
+            endpoint.mRetries += trace.getRetries();
+            if (trace.isHedged())
+                endpoint.mHedged++;
+            if (trace.isHedgeWon())
+                endpoint.mHedgesWon++;
+            if (trace.getCacheResult() != null)
+                endpoint.mCacheResults[trace.getCacheResult().ordinal()]++;
+            if (trace.getError() != null) {
+                Integer count = endpoint.mErrors.get(trace.getError());
+                endpoint.mErrors.put(trace.getError(), count == null ? 1 : count + 1);
+            }
+        }
+    }
+
+    /**
+     * Forgets everything recorded
+     */
+    public void reset() {
+        synchronized (mEndpoints) {
+            for (Endpoint endpoint : mEndpoints.values())
+                endpoint.reset();
+            mSinceMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Prints the report, like:
+     * <pre>
+     * network: good, rtt 180 ms, 1800 kbps, 12 samples
+     * volumes.list: 42 requests, 1 errors {HTTP 503=1}
+     *   cache: 10 hit, 2 stale_hit, 30 miss, 1 not_modified, 2 revalidation, 0 fallback
+     *   bytes: 512340, 12198 per request
+     *   tail: 3 retries, 2 hedged, 1 hedges won
+     *   phase       count    p50    p90    p99    max   mean (ms)
+     *   queue          42      1      5     20     31      2
+     * </pre>
+     * The percentiles are the upper bounds of their histogram buckets.
+     */
+    public void dump(PrintWriter out) {
+        synchronized (mEndpoints) {
+            out.println("Request metrics since "
+                    + DateFormat.getDateTimeInstance().format(new Date(mSinceMillis)));
+            out.println(mNetworkQuality);
+            for (Map.Entry<String, Endpoint> entry : mEndpoints.entrySet())
+                entry.getValue().dump(entry.getKey(), out);
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the report printed by {@link #dump(PrintWriter)}
+     */
+    public String report() {
+        StringWriter report = new StringWriter();
+        dump(new PrintWriter(report));
+        return report.toString();
+    }
+
+    private Endpoint endpoint(String name) {
+        synchronized (mEndpoints) {
+            Endpoint endpoint = mEndpoints.get(name);
+            if (endpoint == null) {
+                endpoint = new Endpoint();
+                mEndpoints.put(name, endpoint);
+            }
+            return endpoint;
+        }
+    }
+
+    private static class Endpoint {
+        final LatencyHistogram[] mPhases = new LatencyHistogram[Phase.values().length];
+        final long[] mCacheResults = new long[CacheResult.values().length];
+        final Map<String, Integer> mErrors = new TreeMap<>();
+        long mRequests;
+        long mBytes;
+        long mRetries;
+        long mHedged;
+        long mHedgesWon;
+
+        Endpoint() {
+            for (int i = 0; i < mPhases.length; i++)
+                mPhases[i] = new LatencyHistogram();
+        }
+
+        synchronized void reset() {
+            for (LatencyHistogram histogram : mPhases)
+                histogram.reset();
+            for (int i = 0; i < mCacheResults.length; i++)
+                mCacheResults[i] = 0;
+            mErrors.clear();
+            mRequests = 0;
+            mBytes = 0;
+            mRetries = 0;
+            mHedged = 0;
+            mHedgesWon = 0;
+        }
+
+        synchronized void dump(String name, PrintWriter out) {
+            int errors = 0;
+            for (int count : mErrors.values())
+                errors += count;
+            out.println(name + ": " + mRequests + " requests, " + errors + " errors"
+                    + (errors > 0 ? " " + mErrors : ""));
+            StringBuilder cache = new StringBuilder("  cache:");
+            long cached = 0;
+            for (CacheResult result : CacheResult.values()) {
+                cached += mCacheResults[result.ordinal()];
+                cache.append(result == CacheResult.HIT ? " " : ", ")
+                        .append(mCacheResults[result.ordinal()]).append(' ')
+                        .append(result.name().toLowerCase());
+            }
+            // left out for the endpoints without cache
+            if (cached > 0)
+                out.println(cache);
+            out.println("  bytes: " + mBytes + ", " + (mRequests == 0 ? 0 : mBytes / mRequests) + " per request");
+            if (mRetries > 0 || mHedged > 0)
+                out.println("  tail: " + mRetries + " retries, " + mHedged + " hedged, " + mHedgesWon + " hedges won");
+            out.println(String.format("  %-10s %6s %6s %6s %6s %6s %6s (ms)",
+                    "phase", "count", "p50", "p90", "p99", "max", "mean"));
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = mPhases[phase.ordinal()];
+                if (histogram.getCount() == 0)
+                    continue;
+                out.println(String.format("  %-10s %6d %6d %6d %6d %6d %6d", phase.getLabel(), histogram.getCount(),
+                        histogram.getPercentileMillis(50), histogram.getPercentileMillis(90),
+                        histogram.getPercentileMillis(99), histogram.getMaxMillis(), histogram.getMeanMillis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Phase timings of a single Books request
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import com.exercise.booksexplorer.util.EventLog;
+import com.exercise.booksexplorer.util.Tracing;
+import com.google.api.client.http.HttpResponseException;
+
+import okhttp3.Call;
+
+/**
+ * Collects the phases of one request while it is performed, and records them into the
+ * {@link RequestMetrics} when finished. A trace is used by the thread performing the request,
+ * which attaches it so the HTTP client callbacks on that thread find it, see {@link #current()}.
+ * The phases can also be reported by the thread of a hedged call, see {@link RequestHedger}, which
+ * cancels the OkHttp call of the request through its trace when the hedge wins.
+ * <p>
+ * From its start to {@link #finish()} the request is a section of the system traces named by its endpoint,
+ * so a trace must be finished on the thread that started it, or suspended and resumed on the thread
+ * continuing the request. The finished requests are logged into the
+ * {@link EventLog}.
+ */
+public final class RequestTrace {
+    private static final String TAG = RequestTrace.class.getSimpleName();
+    private static final ThreadLocal<RequestTrace> sCurrent = new ThreadLocal<>();
+
+    private final RequestMetrics mMetrics;
+    private final String mEndpoint;
+    private final long mStartNanos = System.nanoTime();
+    // Phase durations by Phase ordinal, -1 for the phases not gone through
+    private final long[] mPhaseNanos = new long[RequestMetrics.Phase.values().length];
+    private long mBytes;
+    // the bytes of the response bodies as received, before their decompression, -1 if not reported
+    private long mWireBytes = -1;
+    private RequestMetrics.CacheResult mCacheResult;
+    private String mError;
+    private int mRetries;
+    private boolean mHedged;
+    private boolean mHedgeWon;
+    private boolean mBackground;
+    private boolean mFinished;
+
+    // Start times of the connection phases, reported by the HTTP client
+    private long mConnectStartNanos = -1;
+    private long mTlsStartNanos = -1;
+    // The last OkHttp call started by the request
+    private Call mCall;
+
+    /**
+     * Creates the trace, its system trace section is begun by {@link RequestMetrics#start(String, long)}
+     */
+    RequestTrace(RequestMetrics metrics, String endpoint, long enqueuedNanos) {
+        mMetrics = metrics;
+        mEndpoint = endpoint;
+        for (int i = 0; i < mPhaseNanos.length; i++)
+            mPhaseNanos[i] = -1;
+        if (enqueuedNanos >= 0)
+            mPhaseNanos[RequestMetrics.Phase.QUEUE.ordinal()] = mStartNanos - enqueuedNanos;
+    }
+
+    /**
+     * @return the trace attached to the calling thread, null if none
+     */
+    public static RequestTrace current() {
+        return sCurrent.get();
+    }
+
+    /**
+     * Makes the trace current on the calling thread, until {@link #detach()}
+     */
+    public void attach() {
+        sCurrent.set(this);
+    }
+
+    public void detach() {
+        if (sCurrent.get() == this)
+            sCurrent.remove();
+    }
+
+    public String getEndpoint() {
+        return mEndpoint;
+    }
+
+    /**
+     * Adds to the duration of the phase
+     */
+    public synchronized void addPhase(RequestMetrics.Phase phase, long nanos) {
+        long current = mPhaseNanos[phase.ordinal()];
+        mPhaseNanos[phase.ordinal()] = (current < 0 ? 0 : current) + nanos;
+    }
+
+    /**
+     * @return the duration of the phase in nanoseconds, -1 if not gone through
+     */
+    public synchronized long getPhase(RequestMetrics.Phase phase) {
+        return mPhaseNanos[phase.ordinal()];
+    }
+
+    public void addBytes(long bytes) {
+        mBytes += bytes;
+    }
+
+    /**
+     * Called by the HTTP client when a response body is read, with its size as received
+     */
+    public synchronized void addWireBytes(long bytes) {
+        mWireBytes = (mWireBytes < 0 ? 0 : mWireBytes) + bytes;
+    }
+
+    public void setCacheResult(RequestMetrics.CacheResult cacheResult) {
+        mCacheResult = cacheResult;
+    }
+
+    /**
+     * Called when the connection to the server starts, with the DNS lookup
+     */
+    public synchronized void onConnectStart() {
+        if (mConnectStartNanos < 0)
+            mConnectStartNanos = System.nanoTime();
+    }
+
+    public synchronized void onConnectEnd() {
+        if (mConnectStartNanos >= 0) {
+            addPhase(RequestMetrics.Phase.CONNECT, System.nanoTime() - mConnectStartNanos);
+            mConnectStartNanos = -1;
+        }
+    }
+
+    public synchronized void onTlsStart() {
+        mTlsStartNanos = System.nanoTime();
+    }
+
+    public synchronized void onTlsEnd() {
+        if (mTlsStartNanos >= 0) {
+            addPhase(RequestMetrics.Phase.TLS, System.nanoTime() - mTlsStartNanos);
+            mTlsStartNanos = -1;
+        }
+    }
+
+    /**
+     * Ends the system trace section of the request on the calling thread, while the request waits to
+     * continue on another thread
+     */
+    public void suspend() {
+        detach();
+        Tracing.end();
+    }
+
+    /**
+     * Begins the system trace section of the suspended request again on the calling thread
+     */
+    public void resume() {
+        Tracing.begin(mEndpoint);
+    }
+
+    /**
+     * Called by the HTTP client when it starts a call of the request
+     */
+    public synchronized void onCallStart(Call call) {
+        mCall = call;
+    }
+
+    /**
+     * Cancels the call of the request in progress, if performed by OkHttp. The thread performing it
+     * fails with an IOException.
+     */
+    public synchronized void cancelCall() {
+        if (mCall != null)
+            mCall.cancel();
+    }
+
+    /**
+     * Called before another attempt of a failed request
+     */
+    public void onRetry() {
+        mRetries++;
+    }
+
+    /**
+     * Called when a duplicate of the request is sent, see {@link RequestHedger}
+     */
+    public void onHedge() {
+        mHedged = true;
+    }
+
+    /**
+     * Called when the response of the duplicate arrived first
+     */
+    public void onHedgeWon() {
+        mHedgeWon = true;
+    }
+
+    /**
+     * Marks the request as performed by a background job, kept out of the {@link NetworkQualityEstimator}
+     */
+    public void setBackground() {
+        mBackground = true;
+    }
+
+    /**
+     * Marks the request as failed, recorded by {@link #finish()}
+     */
+    public void fail(Throwable error) {
+        if (error instanceof HttpResponseException)
+            mError = "HTTP " + ((HttpResponseException) error).getStatusCode();
+        else
+            mError = error.getClass().getSimpleName();
+    }
+
+    /**
+     * Records the trace into the metrics, once
+     */
+    public void finish() {
+        if (mFinished)
+            return;
+        mFinished = true;
+        detach();
+        long totalNanos = System.nanoTime() - mStartNanos;
+        synchronized (this) {
+            mPhaseNanos[RequestMetrics.Phase.TOTAL.ordinal()] = totalNanos;
+        }
+        mMetrics.record(this);
+        Tracing.end();
+        EventLog.event(mError != null ? Log.WARN : Log.DEBUG, TAG, mEndpoint,
+                "ms", totalNanos / 1000000, "bytes", mBytes);
+    }
+
+    long getBytes() {
+        return mBytes;
+    }
+
+    synchronized long getWireBytes() {
+        return mWireBytes;
+    }
+
+    RequestMetrics.CacheResult getCacheResult() {
+        return mCacheResult;
+    }
+
+    String getError() {
+        return mError;
+    }
+
+    int getRetries() {
+        return mRetries;
+    }
+
+    boolean isHedged() {
+        return mHedged;
+    }
+
+    boolean isHedgeWon() {
+        return mHedgeWon;
+    }
+
+    boolean isBackground() {
+        return mBackground;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Snapshot of the presented results surviving the process
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.Scheduler;
+
+/**
+ * Keeps the results presented for the last query and the scroll position, so they are presented again
+ * on the next launch without network. The results file is a log of records, appended in background while
+ * the pages are loaded: a header naming the query, then the chunks of the pages. Only a few bytes are
+ * written at a time and a record cut by the death of the process is ignored when read, the records before
+ * it are restored. The scroll position changes all the time, it is kept in a small side file overwritten
+ * on every change, and ignored unless it belongs to the query of the results file.
+ * <p>
+ * The writes are performed in order on a single worker of the given scheduler. {@link #read()} blocks
+ * and must be called on a background thread.
+ */
+public class ResultsSnapshot {
+    private static final String TAG = ResultsSnapshot.class.getSimpleName();
+    private static final int FORMAT_VERSION = 2;
+
+    // Record types
+    private static final byte RECORD_HEADER = 1;
+    private static final byte RECORD_CHUNK = 2;
+
+    /**
+     * The results of the snapshot, as complete pages following each other from the first one
+     */
+    public static class State {
+        public final String query;
+        public final int start;
+        public final int pageSize;
+        public final long savedAt;
+        public final List<List<BookSummary>> pages;
+        // The first visible book and its distance from the top of the list, null if not scrolled
+        public final String topVolumeId;
+        public final int topOffset;
+
+        State(String query, int start, int pageSize, long savedAt, List<List<BookSummary>> pages,
+              String topVolumeId, int topOffset) {
+            this.query = query;
+            this.start = start;
+            this.pageSize = pageSize;
+            this.savedAt = savedAt;
+            this.pages = Collections.unmodifiableList(pages);
+            this.topVolumeId = topVolumeId;
+            this.topOffset = topOffset;
+        }
+
+        /**
+         * @return the offset of the page following the restored ones
+         */
+        public int getNextStart() {
+            return start + pages.size() * pageSize;
+        }
+    }
+
+    private final File mFile;
+    private final File mPositionFile;
+    private final long mMaxSize;
+    private final long mMaxAgeMillis;
+    private final Scheduler.Worker mWorker;
+
+    // Known by the writes only, the header of the query, the size of the file and the last position written
+    private long mSavedAt;
+    private String mQuery;
+    private int mStart;
+    private int mPageSize;
+    private long mSize;
+    // the size of the header and the restored pages written by restart, -1 if the query is not restored
+    private long mRestoredSize = -1;
+    private String mTopVolumeId;
+    private int mTopOffset;
+
+    /**
+     * @param file         the snapshot file, the position is kept beside it
+     * @param maxSize      the size past which the chunks of the query are not recorded anymore
+     * @param maxAgeMillis the age past which the snapshot is not restored
+     * @param scheduler    the scheduler to write on
+     */
+    public ResultsSnapshot(File file, long maxSize, long maxAgeMillis, Scheduler scheduler) {
+        mFile = file;
+        mPositionFile = new File(file.getPath() + ".position");
+        mMaxSize = maxSize;
+        mMaxAgeMillis = maxAgeMillis;
+        mWorker = scheduler.createWorker();
+    }
+
+    /**
+     * Starts the snapshot of a new query, replacing the previous one
+     *
+     * @param query    the search term
+     * @param start    the offset of the first page
+     * @param pageSize the number of items per page
+     */
+    public void startQuery(final String query, final int start, final int pageSize) {
+        final long savedAt = System.currentTimeMillis();
+        mWorker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                mSavedAt = savedAt;
+                mQuery = query;
+                mStart = start;
+                mPageSize = pageSize;
+                mSize = 0;
+                mRestoredSize = -1;
+                mTopVolumeId = null;
+                if (mPositionFile.exists() && !mPositionFile.delete())
+                    Log.w(TAG, "Cannot delete " + mPositionFile);
+                append(false, new Record() {
+                    @Override
+                    public void write(DataOutputStream out) throws IOException {
+                        writeHeader(out);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Adds the items of a page as presented, see {@link #startQuery(String, int, int)}
+     *
+     * @param pageStart the offset of the page
+     * @param offset    the index in the page of the first item
+     * @param volumes   the items
+     */
+    public void addChunk(final int pageStart, final int offset, List<BookSummary> volumes) {
+        final List<BookSummary> chunk = new ArrayList<>(volumes);
+        mWorker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                // the pages past the limit are loaded again from the cache
+                if (mSize >= mMaxSize)
+                    return;
+                append(true, new Record() {
+                    @Override
+                    public void write(DataOutputStream out) throws IOException {
+                        writeChunk(out, pageStart, offset, chunk);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the scroll position to restore, by the book at the top of the list so it does not depend on
+     * the books presented besides the pages
+     *
+     * @param volumeId the id of the first visible book
+     * @param offset   the distance of the book from the top of the list, in pixels
+     */
+    public void setPosition(final String volumeId, final int offset) {
+        mWorker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (mSize == 0 || (volumeId.equals(mTopVolumeId) && offset == mTopOffset))
+                    return;
+                mTopVolumeId = volumeId;
+                mTopOffset = offset;
+                // overwritten, a file cut while written is ignored
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(mPositionFile)))) {
+                    out.writeLong(mSavedAt);
+                    VolumesIndex.writeString(out, volumeId);
+                    out.writeInt(offset);
+                } catch (IOException e) {
+                    Log.w(TAG, "Cannot write the results position", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts over with the restored results, dropping the records past them
+     */
+    public void restart(State state) {
+        startQuery(state.query, state.start, state.pageSize);
+        for (int i = 0; i < state.pages.size(); i++)
+            addChunk(state.start + i * state.pageSize, 0, state.pages.get(i));
+        mWorker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                mRestoredSize = mSize;
+            }
+        });
+        if (state.topVolumeId != null)
+            setPosition(state.topVolumeId, state.topOffset);
+    }
+
+    /**
+     * Replaces the pages written by {@link #restart(State)} with their items loaded again, keeping the
+     * records added after them. Ignored if another query was started since.
+     *
+     * @param pages the items of the restored pages, in order
+     */
+    public void replaceRestoredPages(List<List<BookSummary>> pages) {
+        final List<List<BookSummary>> copy = new ArrayList<>(pages);
+        mWorker.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (mRestoredSize < 0 || mSize >= mMaxSize)
+                    return;
+                File rewritten = new File(mFile.getPath() + ".tmp");
+                try {
+                    byte[] added = readFrom(mRestoredSize);
+                    long restoredSize;
+                    try (DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(new FileOutputStream(rewritten)))) {
+                        writeHeader(out);
+                        for (int i = 0; i < copy.size(); i++)
+                            writeChunk(out, mStart + i * mPageSize, 0, copy.get(i));
+                        out.flush();
+                        restoredSize = out.size();
+                        out.write(added);
+                        out.flush();
+                    }
+                    // replaced at once, the death of the process leaves either file whole
+                    if (!rewritten.renameTo(mFile))
+                        throw new IOException("Cannot replace " + mFile);
+                    mRestoredSize = restoredSize;
+                    mSize = restoredSize + added.length;
+                } catch (IOException e) {
+                    Log.w(TAG, "Cannot rewrite the results snapshot", e);
+                    if (rewritten.exists() && !rewritten.delete())
+                        Log.w(TAG, "Cannot delete " + rewritten);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the snapshot
+     *
+     * @return the snapshot, null if none, unreadable or too old
+     */
+    public State read() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)))) {
+            if (in.readByte() != RECORD_HEADER || in.readInt() != FORMAT_VERSION)
+                return null;
+            long savedAt = in.readLong();
+            if (System.currentTimeMillis() - savedAt > mMaxAgeMillis)
+                return null;
+            String query = VolumesIndex.readString(in);
+            int start = in.readInt();
+            int pageSize = in.readInt();
+            if (query == null || pageSize <= 0)
+                return null;
+
+            List<List<BookSummary>> pages = new ArrayList<>();
+            List<BookSummary> page = new ArrayList<>();
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == RECORD_CHUNK) {
+                        int pageStart = in.readInt();
+                        int offset = in.readInt();
+                        int count = in.readInt();
+                        List<BookSummary> chunk = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++)
+                            chunk.add(VolumesIndex.readVolume(in));
+                        // the pages are presented in order, a chunk out of order ends the restorable pages
+                        int expectedStart = start + pages.size() * pageSize;
+                        if (pageStart == expectedStart && offset == page.size()) {
+                            page.addAll(chunk);
+                            if (page.size() >= pageSize) {
+                                pages.add(page);
+                                page = new ArrayList<>();
+                            }
+                        }
+                    } else {
+                        throw new IOException("Unknown record " + type);
+                    }
+                }
+            } catch (EOFException e) {
+                // the end of the file, or a record cut while written
+            }
+            String topVolumeId = null;
+            int topOffset = 0;
+            try (DataInputStream position = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(mPositionFile)))) {
+                // a position of an earlier query is ignored
+                if (position.readLong() == savedAt) {
+                    String volumeId = VolumesIndex.readString(position);
+                    topOffset = position.readInt();
+                    topVolumeId = volumeId;
+                }
+            } catch (IOException e) {
+                // not scrolled yet, or the file cut while written
+            }
+            return new State(query, start, pageSize, savedAt, pages, topVolumeId, topOffset);
+        } catch (FileNotFoundException e) {
+            // no snapshot yet
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read the results snapshot", e);
+            return null;
+        }
+    }
+
+    private void writeHeader(DataOutputStream out) throws IOException {
+        out.writeByte(RECORD_HEADER);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(mSavedAt);
+        VolumesIndex.writeString(out, mQuery);
+        out.writeInt(mStart);
+        out.writeInt(mPageSize);
+    }
+
+    private static void writeChunk(DataOutputStream out, int pageStart, int offset, List<BookSummary> chunk)
+            throws IOException {
+        out.writeByte(RECORD_CHUNK);
+        out.writeInt(pageStart);
+        out.writeInt(offset);
+        out.writeInt(chunk.size());
+        for (BookSummary volume : chunk)
+            VolumesIndex.writeVolume(out, volume);
+    }
+
+    /**
+     * @return the bytes of the file from the position to its end
+     */
+    private byte[] readFrom(long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(mFile, "r")) {
+            byte[] bytes = new byte[(int) Math.max(0, file.length() - position)];
+            file.seek(position);
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * A record of the file
+     */
+    private interface Record {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the record at the end of the file, or as the only record
+     */
+    private void append(boolean append, Record record) {
+        try {
+            File parent = mFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs())
+                throw new IOException("Cannot create " + parent);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(mFile, append)))) {
+                record.write(out);
+                out.flush();
+                mSize += out.size();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write the results snapshot", e);
+            // stop recording the query, the next one starts over
+            mSize = mMaxSize;
+        }
+    }
+}
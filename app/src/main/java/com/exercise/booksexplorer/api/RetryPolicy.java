@@ -0,0 +1,75 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Retries of the transient request failures
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.HttpResponseException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Random;
+
+/**
+ * Decides which failed requests are worth retrying, and how long to wait before the retry.
+ * The delays grow exponentially with full jitter, a random delay between 0 and the exponential bound,
+ * so the clients failing together don't retry together. Thread safe.
+ */
+public final class RetryPolicy {
+    private static final int STATUS_REQUEST_TIMEOUT = 408;
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    // keeps the exponential bound from overflowing
+    private static final int MAX_SHIFT = 30;
+
+    private final int mMaxAttempts;
+    private final long mBaseDelayMillis;
+    private final long mMaxDelayMillis;
+    private final Random mRandom;
+
+    /**
+     * @param maxAttempts     the maximum number of attempts of a request, including the first one
+     * @param baseDelayMillis the bound of the delay before the first retry
+     * @param maxDelayMillis  the bound of the delay before any retry
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this(maxAttempts, baseDelayMillis, maxDelayMillis, new Random());
+    }
+
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, Random random) {
+        mMaxAttempts = maxAttempts;
+        mBaseDelayMillis = baseDelayMillis;
+        mMaxDelayMillis = maxDelayMillis;
+        mRandom = random;
+    }
+
+    public int getMaxAttempts() {
+        return mMaxAttempts;
+    }
+
+    /**
+     * @return true if the failure is likely to go away by itself: the timeouts, the failures to resolve
+     * or connect to the host, and the server errors, throttling included. Any other failure is not, like
+     * the client errors, the cancellations, the TLS failures or a malformed response.
+     */
+    public boolean isTransient(IOException e) {
+        if (e instanceof HttpResponseException) {
+            int status = ((HttpResponseException) e).getStatusCode();
+            return status >= 500 || status == STATUS_REQUEST_TIMEOUT || status == STATUS_TOO_MANY_REQUESTS;
+        }
+        return e instanceof SocketTimeoutException || e instanceof ConnectException
+                || e instanceof NoRouteToHostException || e instanceof UnknownHostException;
+    }
+
+    /**
+     * @param attempt the number of the failed attempt, from 1
+     * @return the time to wait before the next attempt in milliseconds
+     */
+    public long getDelayMillis(int attempt) {
+        long bound = Math.min(mMaxDelayMillis, mBaseDelayMillis << Math.min(attempt - 1, MAX_SHIFT));
+        return (long) (mRandom.nextDouble() * bound);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Input stream measuring its reads
+ */
+package com.exercise.booksexplorer.api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from the wrapped stream and the time spent blocked in the reads,
+ * which separates the download of a streamed response from its decoding
+ */
+class TimedInputStream extends FilterInputStream {
+    private long mCount;
+    private long mReadNanos;
+
+    TimedInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * @return the number of bytes read
+     */
+    long getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the time spent in the reads in nanoseconds
+     */
+    long getReadNanos() {
+        return mReadNanos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        long started = System.nanoTime();
+        int b = super.read();
+        mReadNanos += System.nanoTime() - started;
+        if (b != -1)
+            mCount++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        long started = System.nanoTime();
+        int read = super.read(buffer, offset, count);
+        mReadNanos += System.nanoTime() - started;
+        if (read > 0)
+            mCount += read;
+        return read;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: OkHttp events feeding the request traces
+ */
+package com.exercise.booksexplorer.api;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * Reports the connection phases of the OkHttp calls, and the size of their response bodies as received,
+ * to the {@link RequestTrace} current on the calling thread. The Books requests are synchronous calls,
+ * so their events are delivered on the thread performing the request, and the end of a response body
+ * on the thread reading it. The events of calls without a trace are ignored.
+ */
+public class TimingEventListener extends EventListener {
+
+    @Override
+    public void callStart(Call call) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onCallStart(call);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onConnectStart();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onConnectStart();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onTlsStart();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onTlsEnd();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onConnectEnd();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.addWireBytes(byteCount);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null)
+            trace.onConnectEnd();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Application wide in-memory store of the volumes seen
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.LruCache;
+
+import com.exercise.booksexplorer.util.Tracing;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.services.books.Books;
+import com.google.api.services.books.model.Volume;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.inject.Provider;
+
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.subjects.SingleSubject;
+
+/**
+ * Keeps the summaries of the volumes from the search pages and the full volumes fetched for the
+ * details screen, both bounded by count. Concurrent fetches of the same volume share one request,
+ * also when it is part of a batch of the {@link VolumesEnricher}.
+ * The fetches are traced into the {@link RequestMetrics} as {@link RequestMetrics#VOLUMES_GET}.
+ */
+public class VolumeStore {
+    private final Provider<Books> mBooks;
+    private final Scheduler mScheduler;
+    private final RequestMetrics mMetrics;
+    private final LruCache<String, BookSummary> mSummaries;
+    private final LruCache<String, Volume> mVolumes;
+
+    // Requests in progress by volume id
+    private final Map<String, Single<Volume>> mInFlight = new HashMap<>();
+
+    /**
+     * @param books        the API client, built by the first request
+     * @param scheduler    the scheduler to perform the requests on
+     * @param maxSummaries the maximum number of summaries kept
+     * @param maxVolumes   the maximum number of full volumes kept
+     * @param metrics      the metrics of the requests
+     */
+    public VolumeStore(Provider<Books> books, Scheduler scheduler, int maxSummaries, int maxVolumes,
+                       RequestMetrics metrics) {
+        mBooks = books;
+        mScheduler = scheduler;
+        mMetrics = metrics;
+        mSummaries = new LruCache<>(maxSummaries);
+        mVolumes = new LruCache<>(maxVolumes);
+    }
+
+    public void putSummary(BookSummary summary) {
+        if (summary.getId() != null)
+            mSummaries.put(summary.getId(), summary);
+    }
+
+    /**
+     * @return the summary of the volume by id or null if not seen
+     */
+    public BookSummary getSummary(String volumeId) {
+        return mSummaries.get(volumeId);
+    }
+
+    public void putVolume(Volume volume) {
+        if (volume.getId() != null)
+            mVolumes.put(volume.getId(), volume);
+    }
+
+    /**
+     * @return the full volume by id or null if not fetched yet
+     */
+    public Volume getVolume(String volumeId) {
+        return mVolumes.get(volumeId);
+    }
+
+    /**
+     * Gets the full volume, from the store or by a request shared with all concurrent callers
+     *
+     * @param volumeId the id of the volume
+     * @return Single emitting the volume
+     */
+    public Single<Volume> fetchVolume(final String volumeId) {
+        Volume volume = mVolumes.get(volumeId);
+        if (volume != null)
+            return Single.just(volume);
+
+        synchronized (mInFlight) {
+            Single<Volume> request = mInFlight.get(volumeId);
+            if (request == null) {
+                // the time the request is submitted to the scheduler
+                final long[] enqueued = { -1 };
+                request = Single.fromCallable(new Callable<Volume>() {
+                    @Override
+                    public Volume call() throws Exception {
+                        return get(volumeId, enqueued[0]);
+                    }
+                }).subscribeOn(mScheduler)
+                        .doOnSubscribe(new Consumer<Disposable>() {
+                            @Override
+                            public void accept(Disposable disposable) throws Exception {
+                                enqueued[0] = System.nanoTime();
+                            }
+                        })
+                        .doOnSuccess(new Consumer<Volume>() {
+                            @Override
+                            public void accept(Volume volume) throws Exception {
+                                putVolume(volume);
+                                complete(volumeId);
+                            }
+                        })
+                        .doOnError(new Consumer<Throwable>() {
+                            @Override
+                            public void accept(Throwable throwable) throws Exception {
+                                complete(volumeId);
+                            }
+                        })
+                        .cache();
+                mInFlight.put(volumeId, request);
+            }
+            return request;
+        }
+    }
+
+    /**
+     * Marks the volume as requested by a batch, so its fetches join the batch instead of requesting it again.
+     * The batch stores the volume and calls {@link #complete(String)} before delivering its result.
+     * The fetches joining a failed batch request the volume alone.
+     *
+     * @return the receiver of the batch result, null if the volume is stored or already requested
+     */
+    SingleSubject<Volume> startBatched(final String volumeId) {
+        if (mVolumes.get(volumeId) != null)
+            return null;
+        synchronized (mInFlight) {
+            if (mInFlight.containsKey(volumeId))
+                return null;
+            SingleSubject<Volume> result = SingleSubject.create();
+            mInFlight.put(volumeId, result.onErrorResumeNext(new Function<Throwable, Single<Volume>>() {
+                @Override
+                public Single<Volume> apply(Throwable throwable) throws Exception {
+                    return fetchVolume(volumeId);
+                }
+            }));
+            return result;
+        }
+    }
+
+    /**
+     * Requests the volume, tracing the request
+     */
+    private Volume get(String volumeId, long enqueuedNanos) throws IOException {
+        RequestTrace trace = mMetrics.start(RequestMetrics.VOLUMES_GET, enqueuedNanos);
+        try {
+            Books books = mBooks.get();
+            HttpResponse response;
+            // the connection phases are reported on this thread by the HTTP client
+            trace.attach();
+            long started = System.nanoTime();
+            try {
+                response = books.volumes().get(volumeId).executeUnparsed();
+            } finally {
+                trace.detach();
+                trace.addPhase(RequestMetrics.Phase.TTFB,
+                        System.nanoTime() - started - Math.max(0, trace.getPhase(RequestMetrics.Phase.CONNECT)));
+            }
+            // the size of the body as received is reported on this thread by the HTTP client
+            trace.attach();
+            try {
+                TimedInputStream in = new TimedInputStream(response.getContent());
+                started = System.nanoTime();
+                Volume volume;
+                Tracing.begin(Tracing.PARSE);
+                try {
+                    volume = books.getJsonFactory().fromInputStream(in, response.getContentCharset(), Volume.class);
+                } finally {
+                    Tracing.end();
+                }
+                trace.addPhase(RequestMetrics.Phase.DOWNLOAD, in.getReadNanos());
+                trace.addPhase(RequestMetrics.Phase.PARSE, System.nanoTime() - started - in.getReadNanos());
+                trace.addBytes(in.getCount());
+                return volume;
+            } finally {
+                response.disconnect();
+                trace.detach();
+            }
+        } catch (IOException | RuntimeException e) {
+            trace.fail(e);
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+
+    void complete(String volumeId) {
+        synchronized (mInFlight) {
+            mInFlight.remove(volumeId);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Disk backed LRU cache of raw Books API responses
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the raw JSON of the responses in a directory, one file per response, and evicts the
+ * least recently used files once the total size exceeds the configured maximum.
+ * Each entry remembers the ETag returned by the server and the time it was stored, so the caller
+ * can decide if the entry is fresh, stale but still usable, or must be revalidated.
+ */
+public class VolumesCache {
+    private static final String TAG = VolumesCache.class.getSimpleName();
+    private static final int FORMAT_VERSION = 1;
+
+    private final File mDirectory;
+    private final long mMaxSize;
+    private final long mTtlMillis;
+    private final long mMaxStaleMillis;
+
+    // file name -> file size, in access order
+    private final LinkedHashMap<String, Long> mIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private long mSize;
+    private boolean mInitialized;
+
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mStaleHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mNotModifiedCount = new AtomicLong();
+
+    /**
+     * A single cached response
+     */
+    public static class Entry {
+        final String etag;
+        final long storedAt;
+        final byte[] body;
+
+        Entry(String etag, long storedAt, byte[] body) {
+            this.etag = etag;
+            this.storedAt = storedAt;
+            this.body = body;
+        }
+    }
+
+    /**
+     * @param directory      the directory keeping the cache files
+     * @param maxSize        the maximum total size of the cache files in bytes
+     * @param ttlMillis      the time an entry is served without contacting the server
+     * @param maxStaleMillis the time after the ttl an entry is still served while revalidated in background
+     */
+    public VolumesCache(File directory, long maxSize, long ttlMillis, long maxStaleMillis) {
+        mDirectory = directory;
+        mMaxSize = maxSize;
+        mTtlMillis = ttlMillis;
+        mMaxStaleMillis = maxStaleMillis;
+    }
+
+    /**
+     * Builds the cache key of a volumes list page
+     *
+     * @param query      the search term, normalized to lower case with collapsed white spaces
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @return String
+     */
+    public static String listKey(String query, int startIndex, int maxResults) {
+        return "volumes.list|" + normalizeQuery(query) + "|" + startIndex + "|" + maxResults;
+    }
+
+    /**
+     * Builds the cache key of a single volume
+     */
+    public static String volumeKey(String volumeId) {
+        return "volumes.get|" + volumeId;
+    }
+
+    static String normalizeQuery(String query) {
+        if (query == null)
+            return "";
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.US);
+    }
+
+    /**
+     * @return the cached entry by the given key or null if missing
+     */
+    public synchronized Entry get(String key) {
+        init();
+        String fileName = fileName(key);
+        if (!mIndex.containsKey(fileName))
+            return null;
+
+        File file = new File(mDirectory, fileName);
+        try {
+            Entry entry = read(file);
+            // keep the access order across restarts
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            return entry;
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable cache file " + file, e);
+            delete(fileName);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response and evicts the least recently used entries if the size limit is exceeded
+     */
+    public synchronized void put(String key, String etag, byte[] body) {
+        init();
+        String fileName = fileName(key);
+        File file = new File(mDirectory, fileName);
+        File tmp = new File(mDirectory, fileName + ".tmp");
+        try {
+            write(tmp, new Entry(etag, System.currentTimeMillis(), body));
+            if (!tmp.renameTo(file))
+                throw new IOException("Unable to rename " + tmp + " to " + file);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed writing cache file " + file, e);
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+        Long previous = mIndex.put(fileName, file.length());
+        if (previous != null)
+            mSize -= previous;
+        mSize += file.length();
+        trimToSize();
+    }
+
+    /**
+     * @return true if the entry can be served without contacting the server
+     */
+    public boolean isFresh(Entry entry) {
+        return age(entry) < mTtlMillis;
+    }
+
+    /**
+     * @return true if the entry can be served while revalidated in background
+     */
+    public boolean isUsableStale(Entry entry) {
+        return age(entry) < mTtlMillis + mMaxStaleMillis;
+    }
+
+    public synchronized long size() {
+        init();
+        return mSize;
+    }
+
+    public long maxSize() {
+        return mMaxSize;
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getStaleHitCount() {
+        return mStaleHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    public long getNotModifiedCount() {
+        return mNotModifiedCount.get();
+    }
+
+    void recordHit() {
+        mHitCount.incrementAndGet();
+    }
+
+    void recordStaleHit() {
+        mStaleHitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        mMissCount.incrementAndGet();
+    }
+
+    void recordNotModified() {
+        mNotModifiedCount.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "VolumesCache{hits=%d, staleHits=%d, misses=%d, notModified=%d, size=%d/%d}",
+                getHitCount(), getStaleHitCount(), getMissCount(), getNotModifiedCount(), size(), mMaxSize);
+    }
+
+    private long age(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAt;
+    }
+
+    /**
+     * Loads the index lazily on the first access, so the cache construction costs nothing
+     */
+    private void init() {
+        if (mInitialized)
+            return;
+        mInitialized = true;
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Unable to create cache directory " + mDirectory);
+            return;
+        }
+        File[] files = mDirectory.listFiles();
+        if (files == null)
+            return;
+
+        // oldest first, so the access order of the index starts with the least recently used
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                continue;
+            }
+            mIndex.put(file.getName(), file.length());
+            mSize += file.length();
+        }
+        trimToSize();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> it = mIndex.entrySet().iterator();
+        while (mSize > mMaxSize && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            mSize -= eldest.getValue();
+            //noinspection ResultOfMethodCallIgnored
+            new File(mDirectory, eldest.getKey()).delete();
+        }
+    }
+
+    private void delete(String fileName) {
+        Long size = mIndex.remove(fileName);
+        if (size != null)
+            mSize -= size;
+        //noinspection ResultOfMethodCallIgnored
+        new File(mDirectory, fileName).delete();
+    }
+
+    private static Entry read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != FORMAT_VERSION)
+                throw new IOException("Unsupported cache format");
+            String etag = in.readUTF();
+            long storedAt = in.readLong();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new Entry(etag.isEmpty() ? null : etag, storedAt, body);
+        }
+    }
+
+    private static void write(File file, Entry entry) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(entry.etag == null ? "" : entry.etag);
+            out.writeLong(entry.storedAt);
+            out.writeInt(entry.body.length);
+            out.write(entry.body);
+        }
+    }
+
+    /**
+     * Reads the stream fully and closes it
+     */
+    static byte[] readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1)
+                out.write(buffer, 0, count);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes("UTF-8"));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash)
+                sb.append(String.format(Locale.US, "%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
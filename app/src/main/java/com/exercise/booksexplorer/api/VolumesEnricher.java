@@ -0,0 +1,200 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Batched background fetch of the full volumes of the listed books
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.books.Books;
+import com.google.api.services.books.model.Volume;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Provider;
+
+import io.reactivex.Scheduler;
+import io.reactivex.subjects.SingleSubject;
+
+/**
+ * Collects the ids of the books likely to be opened, like the rows on the screen, and fetches their
+ * full volumes into the {@link VolumeStore} in batches: one HTTP call carrying up to a maximum number
+ * of volumes.get requests, sent when the batch is full or after the flush interval. Opening a book
+ * fetched this way is instant, and a book opened while its batch is in progress joins the batch.
+ * The batches are traced into the {@link RequestMetrics} as {@link RequestMetrics#VOLUMES_BATCH}.
+ * Thread safe.
+ */
+public class VolumesEnricher {
+    private static final String TAG = VolumesEnricher.class.getSimpleName();
+
+    private final Provider<Books> mBooks;
+    private final VolumeStore mStore;
+    private final Scheduler mScheduler;
+    private final RequestMetrics mMetrics;
+    private final int mMaxBatchSize;
+    private final long mFlushIntervalMillis;
+
+    // Volumes waiting for the next batch with the receivers of their results, in request order
+    private final Map<String, SingleSubject<Volume>> mPending = new LinkedHashMap<>();
+    private boolean mFlushScheduled;
+
+    private final AtomicLong mBatchCount = new AtomicLong();
+    private final AtomicLong mVolumeCount = new AtomicLong();
+    private final AtomicLong mFailedCount = new AtomicLong();
+
+    private final Runnable mFlush = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * @param books               the API client, built by the first batch
+     * @param store               the store of the fetched volumes
+     * @param scheduler           the scheduler to perform the batches on
+     * @param metrics             the metrics of the requests
+     * @param maxBatchSize        the maximum number of volumes in a batch
+     * @param flushIntervalMillis the time a volume waits for others before its batch is sent
+     */
+    public VolumesEnricher(Provider<Books> books, VolumeStore store, Scheduler scheduler, RequestMetrics metrics,
+                           int maxBatchSize, long flushIntervalMillis) {
+        mBooks = books;
+        mStore = store;
+        mScheduler = scheduler;
+        mMetrics = metrics;
+        mMaxBatchSize = maxBatchSize;
+        mFlushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Adds the volume to the next batch, unless it is stored or already requested
+     */
+    public void enqueue(String volumeId) {
+        SingleSubject<Volume> result = mStore.startBatched(volumeId);
+        if (result == null)
+            return;
+        boolean full;
+        synchronized (mPending) {
+            mPending.put(volumeId, result);
+            full = mPending.size() >= mMaxBatchSize;
+            if (!full && !mFlushScheduled) {
+                mFlushScheduled = true;
+                mScheduler.scheduleDirect(mFlush, mFlushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full)
+            mScheduler.scheduleDirect(mFlush);
+    }
+
+    /**
+     * @return the number of batches sent
+     */
+    public long getBatchCount() {
+        return mBatchCount.get();
+    }
+
+    /**
+     * @return the number of volumes fetched by the batches
+     */
+    public long getVolumeCount() {
+        return mVolumeCount.get();
+    }
+
+    /**
+     * @return the number of volumes the batches failed to fetch
+     */
+    public long getFailedCount() {
+        return mFailedCount.get();
+    }
+
+    /**
+     * Sends the pending volumes in batches until none is left
+     */
+    private void flush() {
+        while (true) {
+            Map<String, SingleSubject<Volume>> batch = new LinkedHashMap<>();
+            synchronized (mPending) {
+                Iterator<Map.Entry<String, SingleSubject<Volume>>> pending = mPending.entrySet().iterator();
+                while (pending.hasNext() && batch.size() < mMaxBatchSize) {
+                    Map.Entry<String, SingleSubject<Volume>> entry = pending.next();
+                    batch.put(entry.getKey(), entry.getValue());
+                    pending.remove();
+                }
+                if (batch.isEmpty()) {
+                    mFlushScheduled = false;
+                    return;
+                }
+            }
+            execute(batch);
+        }
+    }
+
+    /**
+     * Creates a batch sent to the batch endpoint of the Books API. The client sends its batches to the
+     * global batch endpoint by default, which is shut down.
+     */
+    static BatchRequest newBatch(Books books) {
+        return books.batch().setBatchUrl(new GenericUrl(books.getRootUrl() + "batch/books/v1"));
+    }
+
+    /**
+     * Performs the batch, every volume is delivered to its receiver or failed
+     */
+    private void execute(final Map<String, SingleSubject<Volume>> batch) {
+        RequestTrace trace = mMetrics.start(RequestMetrics.VOLUMES_BATCH, -1);
+        try {
+            Books books = mBooks.get();
+            BatchRequest request = newBatch(books);
+            for (final String volumeId : batch.keySet()) {
+                books.volumes().get(volumeId).queue(request, new JsonBatchCallback<Volume>() {
+                    @Override
+                    public void onSuccess(Volume volume, HttpHeaders responseHeaders) {
+                        mStore.putVolume(volume);
+                        mStore.complete(volumeId);
+                        mVolumeCount.incrementAndGet();
+                        batch.remove(volumeId).onSuccess(volume);
+                    }
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                        fail(volumeId, batch.remove(volumeId), new IOException(error.getCode() + " " + error.getMessage()));
+                    }
+                });
+            }
+            // the connection phases are reported on this thread by the HTTP client
+            trace.attach();
+            try {
+                request.execute();
+            } finally {
+                trace.detach();
+            }
+            mBatchCount.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            trace.fail(e);
+            Log.w(TAG, "Batch of " + batch.size() + " volumes failed", e);
+        } finally {
+            trace.finish();
+            // the volumes missing from the response or left by a failure
+            for (Map.Entry<String, SingleSubject<Volume>> entry : batch.entrySet())
+                fail(entry.getKey(), entry.getValue(), new IOException("Not fetched by the batch"));
+        }
+    }
+
+    private void fail(String volumeId, SingleSubject<Volume> result, IOException error) {
+        mFailedCount.incrementAndGet();
+        mStore.complete(volumeId);
+        result.onError(error);
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Persistent inverted index of the volumes seen
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+
+/**
+ * Indexes the words of the titles, authors and descriptions of every volume received, so queries
+ * can be answered from memory without network, in particular offline.
+ * <p>
+ * Every query word matches the indexed words it is a prefix of, and a volume matches when all the
+ * query words do. The volumes are kept in a single file, written in background shortly after changes,
+ * and the least recently seen volumes are dropped once the file would exceed the configured size.
+ * The words are not persisted, the index is rebuilt in memory when the file is first read.
+ */
+public class VolumesIndex {
+    private static final String TAG = VolumesIndex.class.getSimpleName();
+    private static final int FORMAT_VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Words shorter than this are not indexed
+    private static final int MIN_WORD_LENGTH = 2;
+
+    // Delay of the file write after a change, to write a whole page at once
+    private static final long SAVE_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    // Per volume overhead of the file format, used to estimate its size
+    private static final int RECORD_OVERHEAD = 8 + 6 * 4;
+
+    private final File mFile;
+    private final long mMaxSize;
+    private final Scheduler mScheduler;
+
+    // volume id -> volume, in least recently seen order
+    private final LinkedHashMap<String, BookSummary> mVolumes = new LinkedHashMap<>(16, 0.75f, true);
+    // word -> ids of the volumes containing it
+    private final TreeMap<String, Set<String>> mWords = new TreeMap<>();
+    private long mSize;
+    private boolean mLoaded;
+    private boolean mSavePending;
+    // Serializes the file writes
+    private final Object mSaveLock = new Object();
+
+    /**
+     * @param file      the file keeping the indexed volumes
+     * @param maxSize   the maximum size of the file in bytes
+     * @param scheduler the scheduler writing the file
+     */
+    public VolumesIndex(File file, long maxSize, Scheduler scheduler) {
+        mFile = file;
+        mMaxSize = maxSize;
+        mScheduler = scheduler;
+    }
+
+    /**
+     * Splits the text into lower case words without diacritics
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty())
+            return words;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indexes the volume or refreshes it if already indexed
+     */
+    public synchronized void add(BookSummary volume) {
+        if (volume.getId() == null)
+            return;
+        ensureLoaded();
+        BookSummary indexed = mVolumes.get(volume.getId());
+        if (indexed != null && indexed.equals(volume))
+            return;
+        if (indexed != null)
+            remove(indexed);
+        insert(volume);
+        trimToSize();
+        scheduleSave();
+    }
+
+    /**
+     * Finds the indexed volumes matching all the words of the query, most recently seen first
+     *
+     * @param query      the search term
+     * @param maxResults the maximum number of volumes returned
+     * @return the matching volumes
+     */
+    public synchronized List<BookSummary> search(String query, int maxResults) {
+        ensureLoaded();
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty())
+            return Collections.emptyList();
+
+        Set<String> matches = null;
+        for (String term : terms) {
+            Set<String> termMatches = new HashSet<>();
+            SortedMap<String, Set<String>> words = mWords.subMap(term, term + Character.MAX_VALUE);
+            for (Set<String> ids : words.values())
+                termMatches.addAll(ids);
+            if (matches == null)
+                matches = termMatches;
+            else
+                matches.retainAll(termMatches);
+            if (matches.isEmpty())
+                return Collections.emptyList();
+        }
+
+        // the access ordered map iterates from the least recently seen
+        List<BookSummary> result = new ArrayList<>();
+        for (Map.Entry<String, BookSummary> entry : mVolumes.entrySet()) {
+            if (matches.contains(entry.getKey()))
+                result.add(entry.getValue());
+        }
+        Collections.reverse(result);
+        return result.size() > maxResults ? new ArrayList<>(result.subList(0, maxResults)) : result;
+    }
+
+    public synchronized int getVolumeCount() {
+        ensureLoaded();
+        return mVolumes.size();
+    }
+
+    public synchronized int getWordCount() {
+        ensureLoaded();
+        return mWords.size();
+    }
+
+    /**
+     * @return the estimated size of the index file in bytes
+     */
+    public synchronized long getSize() {
+        ensureLoaded();
+        return mSize;
+    }
+
+    /**
+     * Writes the index file now
+     */
+    public void save() {
+        List<BookSummary> volumes;
+        synchronized (this) {
+            mSavePending = false;
+            volumes = new ArrayList<>(mVolumes.values());
+        }
+        synchronized (mSaveLock) {
+            write(volumes);
+        }
+    }
+
+    private void write(List<BookSummary> volumes) {
+        File temp = new File(mFile.getPath() + ".tmp");
+        try {
+            File parent = mFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs())
+                throw new IOException("Cannot create " + parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(volumes.size());
+                for (BookSummary volume : volumes)
+                    writeVolume(out, volume);
+            }
+            if (!temp.renameTo(mFile))
+                throw new IOException("Cannot rename " + temp);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write the volumes index", e);
+            temp.delete();
+        }
+    }
+
+    private void scheduleSave() {
+        if (mSavePending)
+            return;
+        mSavePending = true;
+        mScheduler.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                save();
+            }
+        }, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the index file on first use
+     */
+    private void ensureLoaded() {
+        if (mLoaded)
+            return;
+        mLoaded = true;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)))) {
+            if (in.readInt() != FORMAT_VERSION)
+                return;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++)
+                insert(readVolume(in));
+        } catch (FileNotFoundException e) {
+            // nothing indexed yet
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read the volumes index, starting over", e);
+            mVolumes.clear();
+            mWords.clear();
+            mSize = 0;
+        }
+        trimToSize();
+    }
+
+    private void insert(BookSummary volume) {
+        mVolumes.put(volume.getId(), volume);
+        mSize += estimateSize(volume);
+        for (String word : words(volume)) {
+            Set<String> ids = mWords.get(word);
+            if (ids == null) {
+                ids = new HashSet<>(2);
+                mWords.put(word, ids);
+            }
+            ids.add(volume.getId());
+        }
+    }
+
+    private void remove(BookSummary volume) {
+        mVolumes.remove(volume.getId());
+        mSize -= estimateSize(volume);
+        for (String word : words(volume)) {
+            Set<String> ids = mWords.get(word);
+            if (ids != null) {
+                ids.remove(volume.getId());
+                if (ids.isEmpty())
+                    mWords.remove(word);
+            }
+        }
+    }
+
+    private void trimToSize() {
+        Iterator<BookSummary> it = mVolumes.values().iterator();
+        List<BookSummary> evicted = new ArrayList<>();
+        long size = mSize;
+        while (size > mMaxSize && it.hasNext()) {
+            BookSummary volume = it.next();
+            evicted.add(volume);
+            size -= estimateSize(volume);
+        }
+        for (BookSummary volume : evicted)
+            remove(volume);
+    }
+
+    private static Set<String> words(BookSummary volume) {
+        Set<String> words = new HashSet<>();
+        addWords(words, volume.getTitle());
+        if (volume.getAuthors() != null) {
+            for (String author : volume.getAuthors())
+                addWords(words, author);
+        }
+        addWords(words, volume.getDescription());
+        return words;
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        for (String word : tokenize(text)) {
+            if (word.length() >= MIN_WORD_LENGTH)
+                words.add(word);
+        }
+    }
+
+    private static long estimateSize(BookSummary volume) {
+        long size = RECORD_OVERHEAD + length(volume.getId()) + length(volume.getEtag()) + length(volume.getTitle())
+                + length(volume.getDescription()) + length(volume.getThumbnailUrl());
+        if (volume.getAuthors() != null) {
+            for (String author : volume.getAuthors())
+                size += 4 + length(author);
+        }
+        return size;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    static void writeVolume(DataOutputStream out, BookSummary volume) throws IOException {
+        writeString(out, volume.getId());
+        writeString(out, volume.getEtag());
+        writeString(out, volume.getTitle());
+        List<String> authors = volume.getAuthors();
+        out.writeInt(authors == null ? -1 : authors.size());
+        if (authors != null) {
+            for (String author : authors)
+                writeString(out, author);
+        }
+        writeString(out, volume.getDescription());
+        writeString(out, volume.getThumbnailUrl());
+    }
+
+    static BookSummary readVolume(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String etag = readString(in);
+        String title = readString(in);
+        int authorCount = in.readInt();
+        List<String> authors = null;
+        if (authorCount >= 0) {
+            authors = new ArrayList<>(authorCount);
+            for (int i = 0; i < authorCount; i++)
+                authors.add(readString(in));
+        }
+        String description = readString(in);
+        String thumbnail = readString(in);
+        if (id == null)
+            throw new IOException("Volume without id");
+        return new BookSummary(id, etag, title, authors, description, thumbnail);
+    }
+
+    // descriptions may exceed the 64KB limit of writeUTF
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: A page of search results
+ */
+package com.exercise.booksexplorer.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of search results as returned by {@link VolumesRepository#list(String, int, int)}
+ */
+public final class VolumesPage {
+    private final int mTotalItems;
+    private final List<BookSummary> mItems;
+
+    public VolumesPage(int totalItems, List<BookSummary> items) {
+        mTotalItems = totalItems;
+        mItems = items == null ? Collections.<BookSummary>emptyList() : Collections.unmodifiableList(items);
+    }
+
+    /**
+     * @return the total number of items matching the query, -1 if not reported by the server
+     */
+    public int getTotalItems() {
+        return mTotalItems;
+    }
+
+    public List<BookSummary> getItems() {
+        return mItems;
+    }
+}
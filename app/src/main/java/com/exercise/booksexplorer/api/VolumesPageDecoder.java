@@ -0,0 +1,153 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Streaming decoder of volumes list pages
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a volumes list response token by token straight into {@link BookSummary} items,
+ * handing every item to the callback as soon as its JSON object is read.
+ * Unlike the reflection based parsing into {@link com.google.api.services.books.model.Volumes}
+ * it neither builds the whole response tree nor keeps the unused fields.
+ */
+public final class VolumesPageDecoder {
+
+    /**
+     * Receives the decoded values in the order of the response
+     */
+    public interface Callback {
+        /**
+         * Called with the total number of items matching the query
+         */
+        void onTotalItems(int totalItems);
+
+        /**
+         * Called for every decoded item
+         */
+        void onItem(BookSummary item);
+    }
+
+    private VolumesPageDecoder() {
+    }
+
+    /**
+     * Decodes the response and closes the stream
+     *
+     * @param jsonFactory the factory of the streaming parser
+     * @param in          the JSON response
+     * @param callback    the receiver of the decoded values
+     */
+    public static void decode(JsonFactory jsonFactory, InputStream in, Callback callback) throws IOException {
+        JsonParser parser = jsonFactory.createJsonParser(in);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new IOException("Volumes page is not a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("totalItems".equals(name) && token == JsonToken.VALUE_NUMBER_INT) {
+                    callback.onTotalItems(parser.getIntValue());
+                } else if ("items".equals(name) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT)
+                        callback.onItem(readVolume(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Decodes the whole response into a page
+     */
+    public static VolumesPage decode(JsonFactory jsonFactory, InputStream in) throws IOException {
+        final int[] totalItems = { -1 };
+        final List<BookSummary> items = new ArrayList<>();
+        decode(jsonFactory, in, new Callback() {
+            @Override
+            public void onTotalItems(int total) {
+                totalItems[0] = total;
+            }
+
+            @Override
+            public void onItem(BookSummary item) {
+                items.add(item);
+            }
+        });
+        return new VolumesPage(totalItems[0], items);
+    }
+
+    /**
+     * Reads a volume object, the parser is positioned at its START_OBJECT
+     */
+    private static BookSummary readVolume(JsonParser parser) throws IOException {
+        String id = null;
+        String etag = null;
+        String title = null;
+        List<String> authors = null;
+        String description = null;
+        String thumbnail = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(name)) {
+                id = readString(parser, token);
+            } else if ("etag".equals(name)) {
+                etag = readString(parser, token);
+            } else if ("volumeInfo".equals(name) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String infoName = parser.getCurrentName();
+                    JsonToken infoToken = parser.nextToken();
+                    if ("title".equals(infoName)) {
+                        title = readString(parser, infoToken);
+                    } else if ("description".equals(infoName)) {
+                        description = readString(parser, infoToken);
+                    } else if ("authors".equals(infoName) && infoToken == JsonToken.START_ARRAY) {
+                        authors = new ArrayList<>(2);
+                        JsonToken authorToken;
+                        while ((authorToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+                            if (authorToken == JsonToken.VALUE_STRING)
+                                authors.add(parser.getText());
+                            else
+                                parser.skipChildren();
+                        }
+                    } else if ("imageLinks".equals(infoName) && infoToken == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String linkName = parser.getCurrentName();
+                            JsonToken linkToken = parser.nextToken();
+                            if ("thumbnail".equals(linkName))
+                                thumbnail = readString(parser, linkToken);
+                            else
+                                parser.skipChildren();
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new BookSummary(id, etag, title, authors, description, thumbnail);
+    }
+
+    private static String readString(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING)
+            return parser.getText();
+        parser.skipChildren();
+        return null;
+    }
+}
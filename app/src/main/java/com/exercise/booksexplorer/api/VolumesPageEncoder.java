@@ -0,0 +1,84 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Encoder of volumes list pages
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.util.Charsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes {@link BookSummary} items as a volumes list response with the fields of
+ * {@link BookSummary#LIST_FIELDS}, the format {@link VolumesPageDecoder} reads.
+ * Used to cache the parts of a larger response as pages of their own.
+ */
+public final class VolumesPageEncoder {
+
+    private VolumesPageEncoder() {
+    }
+
+    /**
+     * @param jsonFactory the factory of the streaming generator
+     * @param totalItems  the total number of items matching the query, -1 if unknown
+     * @param items       the items of the page
+     * @return the JSON response
+     */
+    public static byte[] encode(JsonFactory jsonFactory, int totalItems, List<BookSummary> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = jsonFactory.createJsonGenerator(out, Charsets.UTF_8);
+        try {
+            generator.writeStartObject();
+            if (totalItems >= 0) {
+                generator.writeFieldName("totalItems");
+                generator.writeNumber(totalItems);
+            }
+            generator.writeFieldName("items");
+            generator.writeStartArray();
+            for (BookSummary item : items)
+                writeVolume(generator, item);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            generator.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeVolume(JsonGenerator generator, BookSummary item) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "id", item.getId());
+        writeString(generator, "etag", item.getEtag());
+        generator.writeFieldName("volumeInfo");
+        generator.writeStartObject();
+        writeString(generator, "title", item.getTitle());
+        if (!item.getAuthors().isEmpty()) {
+            generator.writeFieldName("authors");
+            generator.writeStartArray();
+            for (String author : item.getAuthors())
+                generator.writeString(author);
+            generator.writeEndArray();
+        }
+        writeString(generator, "description", item.getDescription());
+        if (item.getThumbnailUrl() != null) {
+            generator.writeFieldName("imageLinks");
+            generator.writeStartObject();
+            writeString(generator, "thumbnail", item.getThumbnailUrl());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value == null)
+            return;
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+}
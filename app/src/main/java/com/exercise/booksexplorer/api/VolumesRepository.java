@@ -0,0 +1,915 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Cached access to Google Books API volumes
+ */
+package com.exercise.booksexplorer.api;
+
+import android.util.Log;
+
+import com.exercise.booksexplorer.util.IoScheduler;
+import com.exercise.booksexplorer.util.Tracing;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.books.Books;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Provider;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.ObservableSource;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+
+/**
+ * Performs the volumes requests through the {@link VolumesCache}.
+ * A fresh cached page is returned without network round trip, a stale one is returned immediately
+ * and revalidated in background with If-None-Match, and a missing or expired one is fetched.
+ * Only the fields of {@link BookSummary} are requested from the server, and the responses are
+ * decoded by the streaming {@link VolumesPageDecoder}.
+ * Identical requests in progress at the same time share a single call, see {@link #observe(String, int, int)}.
+ * The pages are cached by the range of their items in pages of the default size: a page made of several
+ * default ones is stored as them, so the cached items are found whatever the size of the later requests.
+ * Every request is traced into the {@link RequestMetrics} as {@link RequestMetrics#VOLUMES_LIST}.
+ * <p>
+ * The fetches are guarded against the latency tail. The transient failures are retried after a backoff
+ * of the {@link RetryPolicy}, which the asynchronous requests wait for on a timer. A page awaited by
+ * a subscriber is requested again when its response is late, see {@link RequestHedger}. The
+ * {@link CircuitBreaker} fails the fetches at once while the backend is down. A failed fetch serves
+ * the expired cached page if there is one.
+ */
+public class VolumesRepository {
+    private static final String TAG = VolumesRepository.class.getSimpleName();
+
+    // The number of decoded items emitted at once by observe, after the first one
+    private static final int ITEMS_CHUNK = 5;
+
+    // the API client, built on an I/O thread by the first request
+    private final Provider<Books> mBooks;
+    private final Provider<JsonFactory> mJsonFactory;
+    private final VolumesCache mCache;
+    private final IoScheduler mIoScheduler;
+    private final VolumeStore mVolumeStore;
+    private final VolumesIndex mIndex;
+    private final RequestMetrics mMetrics;
+    private final RetryPolicy mRetryPolicy;
+    private final CircuitBreaker mCircuitBreaker;
+    private final RequestHedger mHedger;
+    // the size of the cached pages, a multiple of it is cached as several pages
+    private final int mPageUnit;
+
+    // keys being revalidated in background
+    private final Set<String> mRevalidating = new HashSet<>();
+
+    // requests in progress by cache key, shared by all their subscribers
+    private final Map<String, Observable<VolumesPage>> mInFlight = new HashMap<>();
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+
+    // Cost of the received pages, to measure the effect of the partial responses
+    private final AtomicLong mPageCount = new AtomicLong();
+    private final AtomicLong mPayloadBytes = new AtomicLong();
+    private final AtomicLong mParseNanos = new AtomicLong();
+
+    public VolumesRepository(Provider<Books> books, Provider<JsonFactory> jsonFactory, VolumesCache cache, IoScheduler ioScheduler,
+                             VolumeStore volumeStore, VolumesIndex index, RequestMetrics metrics,
+                             RetryPolicy retryPolicy, CircuitBreaker circuitBreaker, RequestHedger hedger,
+                             int pageUnit) {
+        mBooks = books;
+        mJsonFactory = jsonFactory;
+        mCache = cache;
+        mIoScheduler = ioScheduler;
+        mVolumeStore = volumeStore;
+        mIndex = index;
+        mMetrics = metrics;
+        mRetryPolicy = retryPolicy;
+        mCircuitBreaker = circuitBreaker;
+        mHedger = hedger;
+        mPageUnit = pageUnit;
+    }
+
+    public VolumesCache getCache() {
+        return mCache;
+    }
+
+    public VolumesIndex getIndex() {
+        return mIndex;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return mCircuitBreaker;
+    }
+
+    /**
+     * Finds the volumes already seen matching the query, without network, on the I/O scheduler
+     *
+     * @param query      the search term
+     * @param maxResults the maximum number of volumes
+     * @return Single emitting the matching volumes, most recently seen first
+     */
+    public Single<List<BookSummary>> searchLocal(final String query, final int maxResults) {
+        return Single.fromCallable(new Callable<List<BookSummary>>() {
+            @Override
+            public List<BookSummary> call() throws Exception {
+                return mIndex.search(query, maxResults);
+            }
+        }).subscribeOn(mIoScheduler.scheduler());
+    }
+
+    /**
+     * @return the number of pages parsed
+     */
+    public long getPageCount() {
+        return mPageCount.get();
+    }
+
+    /**
+     * @return the total size of the parsed pages JSON in bytes
+     */
+    public long getPayloadBytes() {
+        return mPayloadBytes.get();
+    }
+
+    /**
+     * @return the total time spent decoding pages in nanoseconds
+     */
+    public long getParseNanos() {
+        return mParseNanos.get();
+    }
+
+    /**
+     * @return the number of requests served by joining an identical request in progress
+     */
+    public long getCoalescedCount() {
+        return mCoalescedCount.get();
+    }
+
+    /**
+     * Gets a page of volumes matching the query asynchronously on the I/O scheduler.
+     * The page is emitted in chunks while decoded, the first chunk holding only the first item.
+     * Every chunk carries the total number of items.
+     * <p>
+     * Subscribers of an identical request already in progress join it and receive all its chunks
+     * from the beginning, so they share one network call and one decoding. When the last subscriber
+     * disposes, like for a query superseded by newer text, the request is cancelled: a pending attempt
+     * is not performed and the call in progress is cancelled.
+     * The request fails with {@link RejectedExecutionException} when the I/O queue is full. The transient
+     * failures are retried after a backoff on a timer, without holding an I/O thread.
+     *
+     * @param query      the search term
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @return Observable emitting the chunks of the page
+     */
+    public Observable<VolumesPage> observe(final String query, final int startIndex, final int maxResults) {
+        final String key = VolumesCache.listKey(query, startIndex, maxResults);
+        synchronized (mInFlight) {
+            Observable<VolumesPage> request = mInFlight.get(key);
+            if (request != null) {
+                mCoalescedCount.incrementAndGet();
+                return request;
+            }
+
+            final AtomicReference<Observable<VolumesPage>> self = new AtomicReference<>();
+            final PageLoad load = new PageLoad(query, startIndex, maxResults, false);
+            request = Observable.create(new ObservableOnSubscribe<VolumesPage>() {
+                @Override
+                public void subscribe(ObservableEmitter<VolumesPage> emitter) throws Exception {
+                    ChunkingCallback callback = new ChunkingCallback(emitter);
+                    load.attempt(storing(callback));
+                    callback.flush();
+                    emitter.onComplete();
+                }
+            }).compose(mIoScheduler.<VolumesPage>admitted())
+                    .retryWhen(retryLater())
+                    .doOnSubscribe(new Consumer<Disposable>() {
+                        @Override
+                        public void accept(Disposable disposable) throws Exception {
+                            load.mEnqueuedNanos = System.nanoTime();
+                        }
+                    })
+                    .doOnDispose(new Action() {
+                        @Override
+                        public void run() throws Exception {
+                            load.cancel();
+                        }
+                    })
+                    .doFinally(new Action() {
+                        @Override
+                        public void run() throws Exception {
+                            synchronized (mInFlight) {
+                                if (mInFlight.get(key) == self.get())
+                                    mInFlight.remove(key);
+                            }
+                        }
+                    })
+                    .replay()
+                    .refCount();
+            self.set(request);
+            mInFlight.put(key, request);
+            return request;
+        }
+    }
+
+    /**
+     * Gets a page of volumes matching the query. Blocks the calling thread if the page is not cached,
+     * sleeping between the retries, so not to be called on the I/O scheduler.
+     *
+     * @param query      the search term
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @return VolumesPage
+     */
+    public VolumesPage list(String query, int startIndex, int maxResults) throws IOException {
+        PageCollector collector = new PageCollector();
+        list(query, startIndex, maxResults, collector);
+        return collector.getPage();
+    }
+
+    /**
+     * Requests a page of volumes from the server even if it is cached, conditionally on the ETag of the
+     * cached page so an unchanged page costs no download, on the I/O scheduler. Used to revalidate the
+     * pages presented without the cache, like the ones of a {@link ResultsSnapshot}.
+     *
+     * @param query      the search term
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @return Single emitting the page
+     */
+    public Single<VolumesPage> refresh(final String query, final int startIndex, final int maxResults) {
+        return Observable.defer(new Callable<ObservableSource<VolumesPage>>() {
+            @Override
+            public ObservableSource<VolumesPage> call() throws Exception {
+                final PageLoad load = new PageLoad(query, startIndex, maxResults, true);
+                return Observable.fromCallable(new Callable<VolumesPage>() {
+                    @Override
+                    public VolumesPage call() throws Exception {
+                        PageCollector collector = new PageCollector();
+                        load.attempt(storing(collector));
+                        return collector.getPage();
+                    }
+                }).subscribeOn(mIoScheduler.scheduler())
+                        .retryWhen(retryLater());
+            }
+        }).singleOrError();
+    }
+
+    /**
+     * Gets a page of volumes matching the query, passing every item to the callback as soon as it is decoded.
+     * The items are also kept in the {@link VolumeStore} and the {@link VolumesIndex}. Blocks the calling thread
+     * until the whole page is read, sleeping between the retries, so not to be called on the I/O scheduler.
+     *
+     * @param query      the search term
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @param callback   the receiver of the decoded items
+     */
+    public void list(String query, int startIndex, int maxResults, VolumesPageDecoder.Callback callback)
+            throws IOException {
+        perform(new PageLoad(query, startIndex, maxResults, false), callback);
+    }
+
+    /**
+     * Loads a page of volumes into the cache for a background job, blocking like
+     * {@link #list(String, int, int, VolumesPageDecoder.Callback)}. A stale page is requested again at once
+     * instead of in background, and the request is kept out of the {@link NetworkQualityEstimator}, the network
+     * of a job being unlike the one the user searches on.
+     *
+     * @param query      the search term
+     * @param startIndex the offset of the page
+     * @param maxResults the page size, 0 for the API default
+     * @param callback   the receiver of the decoded items
+     * @return the number of bytes written to the cache, 0 if the cached page was fresh or unchanged
+     */
+    public long warm(String query, int startIndex, int maxResults, VolumesPageDecoder.Callback callback)
+            throws IOException {
+        PageLoad load = new PageLoad(query, startIndex, maxResults, false);
+        load.mBackground = true;
+        perform(load, callback);
+        return load.mStoredBytes;
+    }
+
+    /**
+     * Performs the attempts of the load on the calling thread, sleeping between them
+     */
+    private void perform(PageLoad load, VolumesPageDecoder.Callback callback) throws IOException {
+        while (true) {
+            try {
+                load.attempt(storing(callback));
+                return;
+            } catch (RetryLaterException e) {
+                try {
+                    Thread.sleep(e.mDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    InterruptedIOException error = new InterruptedIOException("Interrupted before retrying " + load.mKey);
+                    load.abandon(error);
+                    throw error;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the handler of retryWhen subscribing again after the delay of a {@link RetryLaterException},
+     * the other errors are passed on
+     */
+    private static Function<Observable<Throwable>, ObservableSource<?>> retryLater() {
+        return new Function<Observable<Throwable>, ObservableSource<?>>() {
+            @Override
+            public ObservableSource<?> apply(Observable<Throwable> errors) throws Exception {
+                return errors.flatMap(new Function<Throwable, ObservableSource<Long>>() {
+                    @Override
+                    public ObservableSource<Long> apply(Throwable error) throws Exception {
+                        if (!(error instanceof RetryLaterException))
+                            return Observable.error(error);
+                        return Observable.timer(((RetryLaterException) error).mDelayMillis, TimeUnit.MILLISECONDS);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * @return a callback keeping the items in the {@link VolumeStore} and the {@link VolumesIndex}
+     * before passing them to the given one
+     */
+    private VolumesPageDecoder.Callback storing(final VolumesPageDecoder.Callback callback) {
+        return new VolumesPageDecoder.Callback() {
+            @Override
+            public void onTotalItems(int totalItems) {
+                callback.onTotalItems(totalItems);
+            }
+
+            @Override
+            public void onItem(BookSummary item) {
+                mVolumeStore.putSummary(item);
+                mIndex.add(item);
+                callback.onItem(item);
+            }
+        };
+    }
+
+    /**
+     * Requests a stale page again in background
+     *
+     * @param entry the cached page to request conditionally on, null to request the page unconditionally
+     */
+    private void revalidate(final String key, final String query, final int startIndex, final int maxResults,
+                            final VolumesCache.Entry entry) {
+        synchronized (mRevalidating) {
+            if (!mRevalidating.add(key))
+                return;
+        }
+        final long enqueued = System.nanoTime();
+        try {
+            mIoScheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    RequestTrace trace = mMetrics.start(RequestMetrics.VOLUMES_LIST, enqueued);
+                    trace.setCacheResult(RequestMetrics.CacheResult.REVALIDATION);
+                    try {
+                        mCircuitBreaker.check();
+                        fetch(query, startIndex, maxResults, entry, null, trace);
+                        mCircuitBreaker.onSuccess();
+                    } catch (IOException e) {
+                        onFetchFailed(e);
+                        trace.fail(e);
+                        Log.w(TAG, "Revalidation failed for " + key, e);
+                    } finally {
+                        trace.finish();
+                        synchronized (mRevalidating) {
+                            mRevalidating.remove(key);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // revalidated by a later hit
+            synchronized (mRevalidating) {
+                mRevalidating.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Reports the failure of an allowed fetch to the circuit breaker
+     *
+     * @return true if the failure is transient
+     */
+    private boolean onFetchFailed(IOException e) {
+        if (mRetryPolicy.isTransient(e)) {
+            mCircuitBreaker.onFailure();
+            return true;
+        }
+        // the backend is up if it answered
+        if (e instanceof HttpResponseException)
+            mCircuitBreaker.onSuccess();
+        return false;
+    }
+
+    /**
+     * Requests the page from the server, conditionally if an entry with ETag is available,
+     * and stores the response in the cache. The response is decoded while downloaded.
+     * The request is hedged when a subscriber waits for the page and the backend is healthy.
+     *
+     * @param entry    the cached page, of the default size, to request conditionally on, null if none
+     * @param callback the receiver of the decoded items, null to only update the cache
+     * @param trace    the trace of the request
+     * @return the number of bytes written to the cache, 0 if the page is unchanged
+     */
+    private long fetch(final String query, final int startIndex, final int maxResults,
+                       final VolumesCache.Entry entry, VolumesPageDecoder.Callback callback, RequestTrace trace)
+            throws IOException {
+        HttpResponse response;
+        long started = System.nanoTime();
+        try {
+            if (callback != null && mCircuitBreaker.isClosed()) {
+                // every call builds its own request, the requests are not thread safe
+                response = mHedger.execute(new Callable<HttpResponse>() {
+                    @Override
+                    public HttpResponse call() throws IOException {
+                        return newListRequest(query, startIndex, maxResults, entry).executeUnparsed();
+                    }
+                }, trace);
+            } else {
+                // the connection phases are reported on this thread by the HTTP client
+                trace.attach();
+                try {
+                    response = newListRequest(query, startIndex, maxResults, entry).executeUnparsed();
+                } finally {
+                    trace.detach();
+                }
+            }
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED && entry != null) {
+                notModified(VolumesCache.listKey(query, startIndex, maxResults), entry, callback, trace);
+                return 0;
+            }
+            throw e;
+        } finally {
+            trace.addPhase(RequestMetrics.Phase.TTFB,
+                    System.nanoTime() - started - Math.max(0, trace.getPhase(RequestMetrics.Phase.CONNECT)));
+        }
+        // the size of the body as received is reported on this thread by the HTTP client
+        trace.attach();
+        try {
+            if (response.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED && entry != null) {
+                notModified(VolumesCache.listKey(query, startIndex, maxResults), entry, callback, trace);
+                return 0;
+            }
+            byte[] body;
+            if (callback != null) {
+                // keep a copy of the streamed bytes for the cache
+                RecordingInputStream in = new RecordingInputStream(response.getContent());
+                decode(in, true, callback, trace);
+                body = in.getBytes();
+            } else {
+                started = System.nanoTime();
+                body = VolumesCache.readFully(response.getContent());
+                trace.addPhase(RequestMetrics.Phase.DOWNLOAD, System.nanoTime() - started);
+                trace.addBytes(body.length);
+            }
+            return store(query, startIndex, maxResults, response.getHeaders().getETag(), body);
+        } finally {
+            response.disconnect();
+            trace.detach();
+        }
+    }
+
+    /**
+     * @return the cache keys of the pages of the default size the page is made of, the key of the page itself
+     * if its size is not a multiple of the default one
+     */
+    private List<String> cacheKeys(String query, int startIndex, int maxResults) {
+        List<String> keys = new ArrayList<>();
+        if (mPageUnit > 0 && maxResults > mPageUnit && maxResults % mPageUnit == 0) {
+            for (int start = startIndex; start < startIndex + maxResults; start += mPageUnit)
+                keys.add(VolumesCache.listKey(query, start, mPageUnit));
+        } else {
+            keys.add(VolumesCache.listKey(query, startIndex, maxResults));
+        }
+        return keys;
+    }
+
+    /**
+     * @return the cached pages the page is made of, null if one of them is missing
+     */
+    private List<VolumesCache.Entry> getCached(List<String> keys) {
+        List<VolumesCache.Entry> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            VolumesCache.Entry entry = mCache.get(key);
+            if (entry == null)
+                return null;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Stores the response in the cache, split into pages of the default size if it is made of several
+     *
+     * @return the number of bytes written to the cache
+     */
+    private long store(String query, int startIndex, int maxResults, String etag, byte[] body) throws IOException {
+        List<String> keys = cacheKeys(query, startIndex, maxResults);
+        if (keys.size() == 1) {
+            mCache.put(keys.get(0), etag, body);
+            return body.length;
+        }
+        // the parts have no ETag of their own, they are requested unconditionally once expired
+        VolumesPage page = VolumesPageDecoder.decode(mJsonFactory.get(), new ByteArrayInputStream(body));
+        List<BookSummary> items = page.getItems();
+        long stored = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            List<BookSummary> part = items.subList(Math.min(i * mPageUnit, items.size()),
+                    Math.min((i + 1) * mPageUnit, items.size()));
+            byte[] partBody = VolumesPageEncoder.encode(mJsonFactory.get(), page.getTotalItems(), part);
+            mCache.put(keys.get(i), null, partBody);
+            stored += partBody.length;
+        }
+        return stored;
+    }
+
+    private Books.Volumes.List newListRequest(String query, int startIndex, int maxResults, VolumesCache.Entry entry)
+            throws IOException {
+        Books.Volumes.List request = mBooks.get().volumes().list(query);
+        request.setFields(BookSummary.LIST_FIELDS);
+        request.setStartIndex((long) startIndex);
+        if (maxResults > 0)
+            request.setMaxResults((long) maxResults);
+        if (entry != null && entry.etag != null)
+            request.getRequestHeaders().setIfNoneMatch(entry.etag);
+        return request;
+    }
+
+    private void notModified(String key, VolumesCache.Entry entry, VolumesPageDecoder.Callback callback,
+                             RequestTrace trace) throws IOException {
+        mCache.recordNotModified();
+        trace.setCacheResult(RequestMetrics.CacheResult.NOT_MODIFIED);
+        // restart the entry's ttl
+        mCache.put(key, entry.etag, entry.body);
+        if (callback != null)
+            decode(new ByteArrayInputStream(entry.body), false, callback, trace);
+    }
+
+    /**
+     * Decodes the page, the measured time includes the network reads of a streamed response.
+     * The trace gets the reads of a streamed response as download and the remainder as parse.
+     *
+     * @param streamed true if the page is read from the network
+     */
+    private void decode(InputStream in, boolean streamed, VolumesPageDecoder.Callback callback, RequestTrace trace)
+            throws IOException {
+        TimedInputStream timed = new TimedInputStream(in);
+        long started = System.nanoTime();
+        Tracing.begin(Tracing.PARSE);
+        try {
+            VolumesPageDecoder.decode(mJsonFactory.get(), timed, callback);
+        } finally {
+            Tracing.end();
+        }
+        long nanos = System.nanoTime() - started;
+        mParseNanos.addAndGet(nanos);
+        mPayloadBytes.addAndGet(timed.getCount());
+        mPageCount.incrementAndGet();
+        if (streamed) {
+            trace.addPhase(RequestMetrics.Phase.DOWNLOAD, timed.getReadNanos());
+            trace.addPhase(RequestMetrics.Phase.PARSE, nanos - timed.getReadNanos());
+            trace.addBytes(timed.getCount());
+        } else {
+            trace.addPhase(RequestMetrics.Phase.PARSE, nanos);
+        }
+    }
+
+    /**
+     * The load of a page through the cache, performed in attempts. A fresh cached page is served by the
+     * first attempt, otherwise every attempt fetches the page, checked by the circuit breaker and reporting
+     * its outcome to it. An attempt failing transiently before delivering an item throws
+     * {@link RetryLaterException}, for the caller to attempt again after its delay. A load failing for good
+     * serves the expired cached page if there is one. The attempts are traced as one request.
+     */
+    private class PageLoad {
+        private final String mQuery;
+        private final int mStartIndex;
+        private final int mMaxResults;
+        private final String mKey;
+        // the keys of the cached pages of the default size the page is made of
+        private final List<String> mCacheKeys;
+        // true to request the page even if cached, conditionally on its ETag
+        private final boolean mRevalidate;
+        // true for a background job, see warm
+        boolean mBackground;
+        // the bytes written to the cache
+        long mStoredBytes;
+        // the time the load is submitted to the I/O scheduler, -1 if not submitted
+        volatile long mEnqueuedNanos = -1;
+        private volatile RequestTrace mTrace;
+        // true between two attempts, while the trace is suspended
+        private final AtomicBoolean mWaiting = new AtomicBoolean();
+        // the cached pages the page is made of, null if not all cached
+        private List<VolumesCache.Entry> mEntries;
+        private int mAttempts;
+
+        PageLoad(String query, int startIndex, int maxResults, boolean revalidate) {
+            mQuery = query;
+            mStartIndex = startIndex;
+            mMaxResults = maxResults;
+            mKey = VolumesCache.listKey(query, startIndex, maxResults);
+            mCacheKeys = cacheKeys(query, startIndex, maxResults);
+            mRevalidate = revalidate;
+        }
+
+        /**
+         * Performs the next attempt, on the thread of the attempt
+         *
+         * @param callback the receiver of the decoded items
+         * @throws RetryLaterException if the attempt failed transiently, and can be attempted again after its delay
+         */
+        synchronized void attempt(VolumesPageDecoder.Callback callback) throws IOException {
+            if (mTrace == null) {
+                mTrace = mMetrics.start(RequestMetrics.VOLUMES_LIST, mEnqueuedNanos);
+                if (mBackground)
+                    mTrace.setBackground();
+            } else if (mWaiting.compareAndSet(true, false))
+                mTrace.resume();
+            else
+                throw new InterruptedIOException("Cancelled " + mKey);
+            try {
+                load(callback);
+            } catch (RetryLaterException e) {
+                // the next attempt may run on another thread
+                mTrace.onRetry();
+                mTrace.suspend();
+                mWaiting.set(true);
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                mTrace.fail(e);
+                mTrace.finish();
+                throw e;
+            }
+            mTrace.finish();
+        }
+
+        /**
+         * Gives up the load if it waits between two attempts, any later attempt fails
+         */
+        void abandon(IOException error) {
+            if (!mWaiting.compareAndSet(true, false))
+                return;
+            mTrace.resume();
+            mTrace.fail(error);
+            mTrace.finish();
+        }
+
+        /**
+         * Gives up the load, cancelling the call in progress if any
+         */
+        void cancel() {
+            RequestTrace trace = mTrace;
+            if (trace == null)
+                return;
+            abandon(new InterruptedIOException("Cancelled " + mKey));
+            trace.cancelCall();
+        }
+
+        private void load(VolumesPageDecoder.Callback callback) throws IOException {
+            if (mAttempts == 0) {
+                mEntries = getCached(mCacheKeys);
+                if (mRevalidate) {
+                    mTrace.setCacheResult(RequestMetrics.CacheResult.REVALIDATION);
+                } else if (mEntries != null && isFresh(mEntries)) {
+                    mCache.recordHit();
+                    mTrace.setCacheResult(RequestMetrics.CacheResult.HIT);
+                    decodeCached(callback);
+                    return;
+                } else if (mEntries != null && !mBackground && isUsableStale(mEntries)) {
+                    mCache.recordStaleHit();
+                    mTrace.setCacheResult(RequestMetrics.CacheResult.STALE_HIT);
+                    revalidate(mKey, mQuery, mStartIndex, mMaxResults, getConditionalEntry());
+                    decodeCached(callback);
+                    return;
+                } else {
+                    mCache.recordMiss();
+                    mTrace.setCacheResult(RequestMetrics.CacheResult.MISS);
+                }
+            }
+            mAttempts++;
+            CountingCallback counting = new CountingCallback(callback);
+            try {
+                mCircuitBreaker.check();
+                try {
+                    mStoredBytes += fetch(mQuery, mStartIndex, mMaxResults, getConditionalEntry(), counting, mTrace);
+                } catch (IOException e) {
+                    // a retry would deliver the items again
+                    if (onFetchFailed(e) && counting.getItems() == 0 && mAttempts < mRetryPolicy.getMaxAttempts()) {
+                        Log.w(TAG, "Retrying " + mKey + " after attempt " + mAttempts + ": " + e);
+                        throw new RetryLaterException(mRetryPolicy.getDelayMillis(mAttempts), e);
+                    }
+                    throw e;
+                }
+                mCircuitBreaker.onSuccess();
+            } catch (RetryLaterException e) {
+                throw e;
+            } catch (IOException e) {
+                boolean unavailable = e instanceof CircuitBreaker.OpenException || mRetryPolicy.isTransient(e);
+                if (mRevalidate || mEntries == null || !unavailable || counting.getItems() > 0)
+                    throw e;
+                // an expired page is better than none while the backend fails
+                Log.w(TAG, "Serving expired " + mKey + ": " + e);
+                mTrace.setCacheResult(RequestMetrics.CacheResult.FALLBACK);
+                decodeCached(callback);
+            }
+        }
+
+        /**
+         * @return the cached page to request conditionally on, null if the page is not cached as a single one
+         */
+        private VolumesCache.Entry getConditionalEntry() {
+            return mEntries != null && mEntries.size() == 1 ? mEntries.get(0) : null;
+        }
+
+        private boolean isFresh(List<VolumesCache.Entry> entries) {
+            for (VolumesCache.Entry entry : entries) {
+                if (!mCache.isFresh(entry))
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean isUsableStale(List<VolumesCache.Entry> entries) {
+            for (VolumesCache.Entry entry : entries) {
+                if (!mCache.isUsableStale(entry))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Decodes the cached pages the page is made of, in order
+         */
+        private void decodeCached(VolumesPageDecoder.Callback callback) throws IOException {
+            for (VolumesCache.Entry entry : mEntries)
+                decode(new ByteArrayInputStream(entry.body), false, callback, mTrace);
+        }
+    }
+
+    /**
+     * Thrown by an attempt of a {@link PageLoad} failed transiently, the load is attempted again after the delay
+     */
+    private static class RetryLaterException extends IOException {
+        final long mDelayMillis;
+
+        RetryLaterException(long delayMillis, IOException cause) {
+            super("Retrying in " + delayMillis + " ms", cause);
+            mDelayMillis = delayMillis;
+        }
+    }
+
+    /**
+     * Collects the decoded items into chunks, emitting the first item alone so it can be presented at once
+     */
+    private static class ChunkingCallback implements VolumesPageDecoder.Callback {
+        private final ObservableEmitter<VolumesPage> mEmitter;
+        private int mTotalItems = -1;
+        private List<BookSummary> mChunk = new ArrayList<>();
+        private boolean mFirst = true;
+
+        ChunkingCallback(ObservableEmitter<VolumesPage> emitter) {
+            mEmitter = emitter;
+        }
+
+        @Override
+        public void onTotalItems(int totalItems) {
+            mTotalItems = totalItems;
+        }
+
+        @Override
+        public void onItem(BookSummary item) {
+            mChunk.add(item);
+            if (mFirst || mChunk.size() >= ITEMS_CHUNK)
+                flush();
+        }
+
+        void flush() {
+            mFirst = false;
+            mEmitter.onNext(new VolumesPage(mTotalItems, mChunk));
+            mChunk = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Collects the decoded items into a page
+     */
+    private static class PageCollector implements VolumesPageDecoder.Callback {
+        private int mTotalItems = -1;
+        private final List<BookSummary> mItems = new ArrayList<>();
+
+        VolumesPage getPage() {
+            return new VolumesPage(mTotalItems, mItems);
+        }
+
+        @Override
+        public void onTotalItems(int totalItems) {
+            mTotalItems = totalItems;
+        }
+
+        @Override
+        public void onItem(BookSummary item) {
+            mItems.add(item);
+        }
+    }
+
+    /**
+     * Counts the items passed to the wrapped callback
+     */
+    private static class CountingCallback implements VolumesPageDecoder.Callback {
+        private final VolumesPageDecoder.Callback mCallback;
+        private int mItems;
+
+        CountingCallback(VolumesPageDecoder.Callback callback) {
+            mCallback = callback;
+        }
+
+        int getItems() {
+            return mItems;
+        }
+
+        @Override
+        public void onTotalItems(int totalItems) {
+            mCallback.onTotalItems(totalItems);
+        }
+
+        @Override
+        public void onItem(BookSummary item) {
+            mItems++;
+            mCallback.onItem(item);
+        }
+    }
+
+    /**
+     * Keeps a copy of the bytes read from the wrapped stream
+     */
+    private static class RecordingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream mCopy = new ByteArrayOutputStream();
+
+        RecordingInputStream(InputStream in) {
+            super(in);
+        }
+
+        /**
+         * @return the bytes read so far, followed by the unread remainder of the stream
+         */
+        byte[] getBytes() throws IOException {
+            byte[] buffer = new byte[1024];
+            try {
+                while (read(buffer) != -1) {
+                    // drain the remainder into the copy
+                }
+            } catch (IOException e) {
+                // the stream is already closed by the parser, the JSON is complete
+            }
+            return mCopy.toByteArray();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1)
+                mCopy.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if (read > 0)
+                mCopy.write(buffer, offset, read);
+            return read;
+        }
+    }
+}
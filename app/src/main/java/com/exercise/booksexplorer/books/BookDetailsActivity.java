@@ -8,24 +8,27 @@ package com.exercise.booksexplorer.books;
 import android.content.Context;
 import android.content.Intent;
 import android.databinding.DataBindingUtil;
+import android.os.Build;
 import android.os.Bundle;
 import android.support.v7.app.ActionBar;
+import android.text.Html;
 import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
 
-import com.bumptech.glide.Glide;
 import com.exercise.booksexplorer.BaseActivity;
+import com.exercise.booksexplorer.GlideApp;
 import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.RequestMetrics;
 import com.exercise.booksexplorer.databinding.ActivityBookDetailsBinding;
 import com.exercise.booksexplorer.util.StringUtils;
 import com.google.api.services.books.model.Volume;
 
-import io.reactivex.Observable;
-import io.reactivex.ObservableEmitter;
-import io.reactivex.ObservableOnSubscribe;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Consumer;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.functions.Function;
 
 /**
  * Activity displaying the details of a single book
@@ -55,18 +58,34 @@ public class BookDetailsActivity extends BaseActivity {
 
         final String bookId = getIntent().getStringExtra(Param.VOLUME_ID.name());
 
-        mDisposable = Observable.create(new ObservableOnSubscribe<Volume>() {
-            @Override
-            public void subscribe(ObservableEmitter<Volume> e) throws Exception {
-                e.onNext(getBooks().volumes().get(bookId).execute());
-            }
-        }).subscribeOn(Schedulers.newThread())
+        // Present at once what is known about the book from the search results
+        // and hold the enter transition until it is laid out
+        postponeEnterTransition();
+        Volume volume = getVolumeStore().getVolume(bookId);
+        BookSummary summary = getVolumeStore().getSummary(bookId);
+        if (volume != null)
+            updateVolume(volume, null);
+        else if (summary != null)
+            updateSummary(summary);
+        startPostponedEnterTransitionOnPreDraw();
+
+        // the HTML description of the full volume is parsed in background, also when the volume is stored
+        mDisposable = getVolumeStore().fetchVolume(bookId)
+                .observeOn(getIoScheduler().scheduler())
+                .map(new Function<Volume, VolumeDetails>() {
+                    @Override
+                    public VolumeDetails apply(Volume volume) throws Exception {
+                        return new VolumeDetails(volume);
+                    }
+                })
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                        new Consumer<Volume>() {
+                        new Consumer<VolumeDetails>() {
                             @Override
-                            public void accept(Volume volume) throws Exception {
-                                updateVolume(volume);
+                            public void accept(VolumeDetails details) throws Exception {
+                                long started = System.nanoTime();
+                                updateVolume(details.volume, details.description);
+                                getRequestMetrics().recordBind(RequestMetrics.VOLUMES_GET, System.nanoTime() - started);
                             }
                         }, new Consumer<Throwable>() {
                             @Override
@@ -90,19 +109,68 @@ public class BookDetailsActivity extends BaseActivity {
             mDisposable.dispose();
     }
 
-    private void updateVolume(Volume volume) {
+    private void startPostponedEnterTransitionOnPreDraw() {
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                startPostponedEnterTransition();
+                return true;
+            }
+        });
+    }
+
+    private void updateSummary(BookSummary summary) {
+        if (summary.getThumbnailUrl() != null)
+            GlideApp.with(this).load(summary.getThumbnailUrl()).into(mDetailsBinding.bookThumbnailImageview);
+        mDetailsBinding.bookAuthorsTextview.setText(summary.getAuthorsText());
+        mDetailsBinding.bookTitleTextview.setText(summary.getTitle());
+        mDetailsBinding.bookDescription.setText(summary.getDescription());
+        ActionBar actionBar = getSupportActionBar();
+        if (actionBar != null)
+            actionBar.setTitle(summary.getTitle());
+    }
+
+    /**
+     * @param description the parsed description, null to keep the one presented
+     */
+    private void updateVolume(Volume volume, CharSequence description) {
         if (volume.getVolumeInfo().getImageLinks() != null)
-            Glide.with(this).load(volume.getVolumeInfo().getImageLinks().getThumbnail()).into(mDetailsBinding.bookThumbnailImageview);
+            GlideApp.with(this).load(volume.getVolumeInfo().getImageLinks().getThumbnail()).into(mDetailsBinding.bookThumbnailImageview);
         mDetailsBinding.bookAuthorsTextview.setText(StringUtils.concat(volume.getVolumeInfo().getAuthors()));
         mDetailsBinding.bookTitleTextview.setText(volume.getVolumeInfo().getTitle());
         mDetailsBinding.bookPublisherTextview.setText(volume.getVolumeInfo().getPublisher());
-        mDetailsBinding.bookDescription.setText(volume.getVolumeInfo().getDescription());
+        if (description != null)
+            mDetailsBinding.bookDescription.setText(description);
         ActionBar actionBar = getSupportActionBar();
         if (actionBar != null)
             actionBar.setTitle(volume.getVolumeInfo().getTitle());
     }
 
-    public static Intent makeIntent(Context context, Volume book) {
+    /**
+     * The full volume with the display texts prepared off the main thread
+     */
+    private static class VolumeDetails {
+        final Volume volume;
+        final CharSequence description;
+
+        VolumeDetails(Volume volume) {
+            this.volume = volume;
+            this.description = fromHtml(volume.getVolumeInfo().getDescription());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static CharSequence fromHtml(String html) {
+        if (html == null)
+            return null;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+            return Html.fromHtml(html, Html.FROM_HTML_MODE_COMPACT);
+        return Html.fromHtml(html);
+    }
+
+    public static Intent makeIntent(Context context, BookSummary book) {
         Intent intent = new Intent(context, BookDetailsActivity.class);
         intent.putExtra(Param.VOLUME_ID.name(), book.getId());
         return intent;
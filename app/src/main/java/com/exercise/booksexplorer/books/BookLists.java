@@ -0,0 +1,61 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: List operations of the adapter books
+ */
+package com.exercise.booksexplorer.books;
+
+import com.exercise.booksexplorer.api.BookSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The list operations of the {@link BookSearchAdapter} books, free of Android dependencies
+ * so they run on a plain JVM.
+ */
+final class BookLists {
+
+    private BookLists() {
+    }
+
+    /**
+     * Appends the books whose ids are not in the set yet, dropping the duplicates returned by the
+     * server across pages
+     *
+     * @param books   the books to append to
+     * @param ids     the ids of the books, the appended ids are added to it
+     * @param volumes the books to append
+     * @param offset  the index in the page of the first book
+     * @param indexes receives the indexes in the page of the appended books, of volumes size at least
+     * @return the number of appended books
+     */
+    static int appendDistinct(List<BookSummary> books, Set<String> ids, List<BookSummary> volumes, int offset,
+                              int[] indexes) {
+        int count = 0;
+        for (int i = 0; i < volumes.size(); i++) {
+            BookSummary volume = volumes.get(i);
+            if (ids.add(volume.getId())) {
+                books.add(volume);
+                indexes[count++] = offset + i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param volumes the books, may contain nulls and duplicates
+     * @param ids     receives the ids of the returned books
+     * @return the non null books with distinct ids, in order
+     */
+    static List<BookSummary> distinct(Collection<BookSummary> volumes, Set<String> ids) {
+        List<BookSummary> books = new ArrayList<>(volumes.size());
+        for (BookSummary volume : volumes) {
+            if (volume != null && ids.add(volume.getId()))
+                books.add(volume);
+        }
+        return books;
+    }
+}
@@ -12,43 +12,91 @@ import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
 import android.support.test.espresso.IdlingResource;
+import android.support.v4.util.Pair;
 import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.SearchView;
 import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.inputmethod.InputMethodManager;
 
 import com.exercise.booksexplorer.BaseActivity;
+import com.exercise.booksexplorer.BuildConfig;
+import com.exercise.booksexplorer.GlideApp;
 import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.NetworkQualityEstimator;
+import com.exercise.booksexplorer.api.RequestMetrics;
+import com.exercise.booksexplorer.api.ResultsSnapshot;
+import com.exercise.booksexplorer.api.VolumesPage;
 import com.exercise.booksexplorer.databinding.ActivityBookSearchBinding;
+import com.exercise.booksexplorer.util.EventLog;
 import com.exercise.booksexplorer.util.SimpleIdlingResource;
+import com.exercise.booksexplorer.util.StartupTrace;
+import com.exercise.booksexplorer.util.Tracing;
 import com.google.api.services.books.Books;
-import com.google.api.services.books.model.Volume;
-import com.google.api.services.books.model.Volumes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
-import io.reactivex.ObservableEmitter;
-import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.ObservableSource;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
 import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
 
 /**
  * Search books activity. Handles intent ACTION_SEARCH.
  */
 public class BookSearchActivity extends BaseActivity implements SearchView.OnQueryTextListener {
     private static final String TAG = BookSearchActivity.class.getSimpleName();
+    // The request metrics screen, declared in the debug builds only
+    private static final String REQUEST_METRICS_ACTIVITY = "com.exercise.booksexplorer.debug.RequestMetricsActivity";
     private ActivityBookSearchBinding mBookSearchBinding;
     private BookSearchAdapter adapter;
-    private VolumesObservable mVolumesObservable;
+    private VolumesPager mVolumesPager;
+    private VolumesWindow mVolumesWindow;
+    private CoverPreloader mCoverPreloader;
+    private TextLayoutWarmer mTextLayoutWarmer;
     private SimpleIdlingResource mIdlingResource;
 
+    // Live search, the text typed in the SearchView and the pipeline performing queries while typing
+    private final PublishSubject<String> mQueryChanges = PublishSubject.create();
+    private Disposable mLiveSearchDisposable;
+    private Disposable mLocalFilterDisposable;
+
+    // The search of the current query in the local index
+    private Disposable mLocalSearchDisposable;
+
+    // The reading of the results snapshot, then the revalidation of the restored pages
+    private Disposable mRestoreDisposable;
+
+    // The results of the current query when narrowed locally by the typed text
+    private List<BookSummary> mFilterSource;
+
+    // Set when the first page of the current query replaces the displayed results instead of appending to them
+    private boolean mReplaceOnNextPage;
+
+    // Fetches the details of the rows once laid out, see enrichVisibleRows
+    private final Runnable mEnrichVisibleRows = new Runnable() {
+        @Override
+        public void run() {
+            enrichVisibleRows();
+        }
+    };
+
     // Google Books API accessor
     @Inject
     Books mBooks;
@@ -59,145 +107,65 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
     }
 
     /**
-     * Observable providing new page with volume items asynchronously
+     * Presents the pages provided by the pager
      */
-    private class VolumesObservable implements ObservableOnSubscribe<List<Volume>> {
-
-        // The search term
-        private String mQuery;
-
-        // The start item to request from server. Used to perform page by page request.
-        private int mStart = 0;
-
-        // The total number of items by the query result
-        private int mTotalItems;
-
-        // The number of items in the current page
-        private int mItemsCount;
-
-        // A handler to the background task
-        private Disposable mDisposable;
-
-        /**
-         * Constructs the VolumesObservable with query and success/failure callback handlers
-         *
-         * @param query           a query to perform the search for books
-         */
-        VolumesObservable(String query, int start) {
-            mQuery = query;
-            mStart = start;
-        }
-
-        /**
-         * @return true if the task is working in progress, false otherwise
-         */
-        boolean isLoading() {
-            return !getIdlingResource().isIdleNow();
-        }
-
-        /**
-         * @return true if more volume pages are present
-         */
-        boolean hasMore() {
-            return mStart < mTotalItems;
-        }
-
-        /**
-         * Requests the first or next page
-         */
-        void nextPage() {
-            Log.i(TAG, ".nextPage: mStart = " + mStart + ", mItemsCount = " + mItemsCount);
-            mStart = mStart + mItemsCount;
-
-            // Prevent more than one tasks at a time by replacing the previous one with the new requested
-            if (mDisposable != null) {
-                mDisposable.dispose();
+    private class PagerListener implements VolumesPager.Listener {
+        @Override
+        public void onPageLoaded(int startIndex, int offset, List<BookSummary> volumes) {
+            long started = System.nanoTime();
+            Tracing.begin(Tracing.BIND);
+            try {
+                getResultsSnapshot().addChunk(startIndex, offset, volumes);
+                // removes the loading indicator and add the new volumes
+                adapter.removeLoadingFooter();
+                if (mReplaceOnNextPage) {
+                    mReplaceOnNextPage = false;
+                    mFilterSource = null;
+                    replaceVolumes(volumes);
+                } else {
+                    logVolumes(volumes);
+                    StartupTrace.traceFirstResult(mBookSearchBinding.booksRv);
+                    adapter.addPage(startIndex, mVolumesPager.getPageSize(), offset, volumes);
+                    updateResultPlaceHolder();
+                    // the rows of the pages prefetched ahead of the screen
+                    mCoverPreloader.onItemsAdded();
+                    mTextLayoutWarmer.warm(volumes, mBookSearchBinding.booksRv);
+                }
+                // the rows are laid out on the next frame
+                mBookSearchBinding.booksRv.removeCallbacks(mEnrichVisibleRows);
+                mBookSearchBinding.booksRv.post(mEnrichVisibleRows);
+            } finally {
+                Tracing.end();
             }
-
-            mDisposable = Observable.create(this)
-                    .subscribeOn(Schedulers.newThread())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                            new Consumer<List<Volume>>() {
-                                @Override
-                                public void accept(List<Volume> volumeList) throws Exception {
-                                    mItemsCount = volumeList.size();
-                                    if (mIdlingResource != null)
-                                        mIdlingResource.setIdleState(true);
-
-                                    // stops the loading indicator and add the new volumes
-                                    adapter.removeLoadingFooter();
-                                    addVolumes(volumeList);
-                                }
-                            }, new Consumer<Throwable>() {
-                                @Override
-                                public void accept(Throwable throwable) throws Exception {
-                                    Log.e(TAG, throwable.getMessage(), throwable);
-                                    mItemsCount = 0;
-                                    if (mIdlingResource != null)
-                                        mIdlingResource.setIdleState(true);
-                                    if (adapter.getItemCount() > 0)
-                                        // Show retry at the bottom of the list if failure occurred when some items are already present
-                                        adapter.showRetry(true, R.string.error_unknown);
-                                    else {
-                                        // Show central error message at the place of the items list
-                                        showError(R.string.error_unknown);
-                                        hideResultPlaceHolder();
-                                    }
-                                }
-                            });
-        }
-
-        /**
-         * Retries retrieving last page
-         */
-        void retry() {
-            Log.i(TAG, ".retry");
-            // next page will start at the same position as the current
-            mItemsCount = 0;
-            nextPage();
+            getRequestMetrics().recordBind(RequestMetrics.VOLUMES_LIST, System.nanoTime() - started);
         }
 
-        /**
-         * Implements the subscribe method from ObservableOnSubscribe interface
-         * used to retrieve the next page volumes in a background task
-         */
         @Override
-        public void subscribe(ObservableEmitter<List<Volume>> emitter) throws Exception {
-            if (mIdlingResource != null)
-                mIdlingResource.setIdleState(false);
-            Books.Volumes.List volumeList = getBooks().volumes().list(mQuery);
-
-            // Set offset of the new page requested
-            volumeList.setStartIndex((long)mStart);
-            Volumes volumes = volumeList.execute();
-
-            // Keep the total items in order to know if there are more pages to come
-            mTotalItems = volumes.getTotalItems();
-
-            List<Volume> items = volumes.getItems();
-            if (items == null) {
-                // Null values are generally not allowed in 2.x operators and sources.
-                items = new ArrayList<>();
+        public void onPageFailed(int startIndex, Throwable throwable) {
+            if (adapter.getBooksCount() > 0) {
+                // Show retry at the bottom of the list if failure occurred when some items are already present
+                adapter.addLoadingFooter();
+                adapter.showRetry(true, R.string.error_unknown);
+            } else {
+                // Show central error message at the place of the items list
+                showError(R.string.error_unknown);
+                hideResultPlaceHolder();
             }
-            emitter.onNext(items);
-            emitter.onComplete();
         }
 
-        /**
-         * Cancels the subscription to this observable
-         */
-        void cancel() {
-            if (mDisposable != null) {
-                mDisposable.dispose();
-            }
-        }
+        @Override
+        public void onStateChanged() {
+            if (mIdlingResource != null)
+                mIdlingResource.setIdleState(!mVolumesPager.isLoading());
 
-        void saveState(Bundle outState) {
-            outState.putString(StateParam.QUERY.name(), mQuery);
-            outState.putInt(StateParam.START.name(), mStart - mItemsCount);
+            // the loading indicator is visible only when the user has to wait for the next page
+            if (mVolumesPager.isWaitingForNextPage())
+                adapter.addLoadingFooter();
+            else if (!adapter.isRetryShown())
+                adapter.removeLoadingFooter();
         }
     }
+
     /**
      * Handles query submit.
      * The method can be invoked by SearchView or in response of intent ACTION_SEARCH
@@ -208,9 +176,13 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
         return true;
     }
 
+    /**
+     * Narrows the displayed results as the user types and performs the typed query once typing pauses
+     */
     @Override
     public boolean onQueryTextChange(String newText) {
-        return false;
+        mQueryChanges.onNext(newText);
+        return true;
     }
 
     @Override
@@ -234,45 +206,243 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
             @Override
             public void onClick(View view) {
                 int itemPosition = mBookSearchBinding.booksRv.getChildLayoutPosition(view);
-                Volume book = adapter.getItem(itemPosition);
+                BookSummary book = adapter.getItem(itemPosition);
+                // a dropped book is being loaded again
+                if (book == null)
+                    return;
                 startActivityWithTransition(BookDetailsActivity.makeIntent(BookSearchActivity.this, book));
             }
 
             @Override
             public void retryPageLoad() {
-                mVolumesObservable.retry();
+                if (mVolumesPager != null)
+                    mVolumesPager.retry();
             }
         });
 
         mBookSearchBinding.booksRv.setAdapter(adapter);
+        mCoverPreloader = new CoverPreloader(GlideApp.with(this), adapter, linearLayoutManager,
+                getResources().getInteger(R.integer.cover_preload_min_rows),
+                getResources().getInteger(R.integer.cover_preload_max_rows));
+        mBookSearchBinding.booksRv.addOnScrollListener(mCoverPreloader);
+        mTextLayoutWarmer = new TextLayoutWarmer(getIoScheduler());
         mBookSearchBinding.booksRv.addOnScrollListener(new PaginationScrollListener(linearLayoutManager) {
             @Override
-            protected void loadMoreItems() {
-                Log.i(TAG, ".loadMoreItems");
-                if (mVolumesObservable.hasMore()) {
-                    runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            // Shows loading indicator and requests next page
-                            adapter.addLoadingFooter();
-                            mVolumesObservable.nextPage();
-                        }
-                    });
-                }
+            protected void loadMoreItems(final int lastVisibleItemPosition) {
+                // the adapter may change by the pager, which is not allowed within a scroll callback
+                mBookSearchBinding.booksRv.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mVolumesPager != null)
+                            mVolumesPager.onScrolled(lastVisibleItemPosition);
+                    }
+                });
             }
 
             @Override
-            public boolean isLastPage() {
-                return !mVolumesObservable.hasMore();
+            protected void onVisibleItemsChanged(final int firstVisibleItemPosition,
+                                                 final int lastVisibleItemPosition) {
+                mBookSearchBinding.booksRv.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mVolumesWindow != null)
+                            mVolumesWindow.onScrolled(firstVisibleItemPosition, lastVisibleItemPosition);
+                    }
+                });
             }
 
             @Override
-            public boolean isLoading() {
-                return mVolumesObservable.isLoading();
+            public boolean isLastPage() {
+                return mVolumesPager == null || !mVolumesPager.hasMore();
+            }
+        });
+        mBookSearchBinding.booksRv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    enrichVisibleRows();
+                    saveScrollPosition();
+                }
             }
         });
 
+        subscribeLocalFilter();
+        subscribeLiveSearch();
         handleIntent(getIntent());
+        // a new launch presents the results left by the previous one
+        if (savedInstanceState == null && !Intent.ACTION_SEARCH.equals(getIntent().getAction()))
+            restoreResults(null, 0);
+        StartupTrace.traceFirstFrame(mBookSearchBinding.getRoot());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (mLiveSearchDisposable != null)
+            mLiveSearchDisposable.dispose();
+        if (mLocalFilterDisposable != null)
+            mLocalFilterDisposable.dispose();
+        if (mLocalSearchDisposable != null)
+            mLocalSearchDisposable.dispose();
+        if (mRestoreDisposable != null)
+            mRestoreDisposable.dispose();
+        if (mVolumesWindow != null)
+            mVolumesWindow.cancel();
+        mBookSearchBinding.booksRv.removeCallbacks(mEnrichVisibleRows);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_book_search, menu);
+        menu.findItem(R.id.action_request_metrics).setVisible(BuildConfig.DEBUG);
+        return true;
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        MenuItem pin = menu.findItem(R.id.action_pin_query);
+        pin.setVisible(mVolumesPager != null);
+        if (mVolumesPager != null)
+            pin.setChecked(getQueryHistory().isPinned(mVolumesPager.getQuery()));
+        return super.onPrepareOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_request_metrics) {
+            startActivity(new Intent().setClassName(this, REQUEST_METRICS_ACTIVITY));
+            return true;
+        }
+        if (item.getItemId() == R.id.action_pin_query) {
+            // kept warm in background by the cache warming job
+            getQueryHistory().setPinned(mVolumesPager.getQuery(), !item.isChecked());
+            item.setChecked(!item.isChecked());
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Builds the local filtering pipeline, narrowing the loaded results to every keystroke while the typed text
+     * is being searched. The books are filtered on a computation thread, and a filtering superseded by newer
+     * text is dropped by switchMap.
+     */
+    private void subscribeLocalFilter() {
+        mLocalFilterDisposable = mQueryChanges
+                .switchMap(new Function<String, ObservableSource<Pair<List<BookSummary>, List<BookSummary>>>>() {
+                    @Override
+                    public ObservableSource<Pair<List<BookSummary>, List<BookSummary>>> apply(final String text)
+                            throws Exception {
+                        final List<BookSummary> source = startFilter(text);
+                        if (source == null)
+                            return Observable.empty();
+                        if (!BooksFilter.isNarrowing(mVolumesPager.getQuery(), text))
+                            return Observable.just(Pair.create(source, source));
+                        return Observable.fromCallable(new Callable<Pair<List<BookSummary>, List<BookSummary>>>() {
+                            @Override
+                            public Pair<List<BookSummary>, List<BookSummary>> call() throws Exception {
+                                return Pair.create(source, BooksFilter.filter(source, text));
+                            }
+                        }).subscribeOn(Schedulers.computation());
+                    }
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<Pair<List<BookSummary>, List<BookSummary>>>() {
+                    @Override
+                    public void accept(Pair<List<BookSummary>, List<BookSummary>> filtered) throws Exception {
+                        // the filtered results are dropped once replaced by the results of a query
+                        if (filtered.first == mFilterSource)
+                            adapter.submitList(filtered.second);
+                    }
+                });
+    }
+
+    /**
+     * Builds the search as you type pipeline, performing the query when typing pauses. A query superseded
+     * by newer text is dropped by switchMap before its first results reach the list, and its request is
+     * cancelled unless the pager joined it.
+     */
+    private void subscribeLiveSearch() {
+        final int minChars = getResources().getInteger(R.integer.live_search_min_chars);
+        mLiveSearchDisposable = mQueryChanges
+                .debounce(getResources().getInteger(R.integer.live_search_debounce_ms), TimeUnit.MILLISECONDS)
+                .map(new Function<String, String>() {
+                    @Override
+                    public String apply(String text) throws Exception {
+                        return text.trim();
+                    }
+                })
+                .filter(new Predicate<String>() {
+                    @Override
+                    public boolean test(String query) throws Exception {
+                        return query.length() >= minChars;
+                    }
+                })
+                .switchMap(new Function<String, ObservableSource<Pair<String, Integer>>>() {
+                    @Override
+                    public ObservableSource<Pair<String, Integer>> apply(String query) throws Exception {
+                        // wait for the first results, the pager joins the same request in progress
+                        // with the same page size, even if the network estimate changes meanwhile.
+                        // The request is kept subscribed until the pager joined it, or the query is superseded.
+                        final Pair<String, Integer> pagedQuery = Pair.create(query, getPageSize());
+                        return getVolumesRepository().observe(query, 0, pagedQuery.second)
+                                .map(new Function<VolumesPage, Pair<String, Integer>>() {
+                                    @Override
+                                    public Pair<String, Integer> apply(VolumesPage chunk) throws Exception {
+                                        return pagedQuery;
+                                    }
+                                })
+                                .onErrorReturnItem(pagedQuery)
+                                .distinct();
+                    }
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<Pair<String, Integer>>() {
+                    @Override
+                    public void accept(Pair<String, Integer> pagedQuery) throws Exception {
+                        performLiveQuery(pagedQuery.first, pagedQuery.second);
+                    }
+                });
+    }
+
+    /**
+     * Takes the results of the current query as the source of the local filtering when the typed text narrows
+     * the query, and stops loading them
+     *
+     * @return the books to filter, null if the typed text does not filter the results
+     */
+    private List<BookSummary> startFilter(String text) {
+        if (mVolumesPager == null)
+            return null;
+        if (mFilterSource == null) {
+            if (!BooksFilter.isNarrowing(mVolumesPager.getQuery(), text))
+                return null;
+            // the adapter books change in place
+            mFilterSource = new ArrayList<>(adapter.getBooks());
+        }
+        // the current query is superseded, stop loading its pages
+        mVolumesPager.stop();
+        adapter.removeLoadingFooter();
+        return mFilterSource;
+    }
+
+    /**
+     * Performs a query typed in the SearchView, keeping the displayed results until the new ones arrive
+     */
+    private void performLiveQuery(String query, int pageSize) {
+        if (mVolumesPager != null && !mVolumesPager.isStopped()
+                && BooksFilter.normalize(query).equals(BooksFilter.normalize(mVolumesPager.getQuery())))
+            return;
+        Log.i(TAG, String.format(".performLiveQuery: query = %s", query));
+        if (mVolumesPager != null)
+            mVolumesPager.stop();
+        if (mRestoreDisposable != null)
+            mRestoreDisposable.dispose();
+        mReplaceOnNextPage = true;
+        startPager(query, 0, pageSize, 0);
+        getResultsSnapshot().startQuery(query, 0, pageSize);
+        getQueryHistory().addRecent(query);
+        searchLocally(query);
     }
 
     public void onNewIntent(Intent intent) {
@@ -285,11 +455,240 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
         mBookSearchBinding.searchView.setIconified(true);
         setResultPlaceHolder(getString(R.string.search_progress, query));
         adapter.clear();
-        mVolumesObservable = new VolumesObservable(query, start);
-        mVolumesObservable.nextPage();
+        mCoverPreloader.reset();
+        if (mVolumesPager != null)
+            mVolumesPager.stop();
+        if (mRestoreDisposable != null)
+            mRestoreDisposable.dispose();
+        mFilterSource = null;
+        mReplaceOnNextPage = false;
+        int pageSize = getPageSize();
+        startPager(query, start, pageSize, 0);
+        getResultsSnapshot().startQuery(query, start, pageSize);
+        getQueryHistory().addRecent(query);
+        if (start == 0)
+            searchLocally(query);
         hideSoftKeyboard();
     }
 
+    /**
+     * Presents the results of the previous session from the snapshot, without network, then continues
+     * their pagination and revalidates them in background. Without a snapshot of the query, the query
+     * is performed again from the saved offset.
+     *
+     * @param query the query to restore, null for the query of the snapshot if any
+     * @param start the offset to perform the query from when there is no snapshot
+     */
+    private void restoreResults(final String query, final int start) {
+        final ResultsSnapshot snapshot = getResultsSnapshot();
+        mRestoreDisposable = Maybe.fromCallable(new Callable<ResultsSnapshot.State>() {
+            @Override
+            public ResultsSnapshot.State call() throws Exception {
+                return snapshot.read();
+            }
+        }).subscribeOn(getIoScheduler().scheduler())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<ResultsSnapshot.State>() {
+                    @Override
+                    public void accept(ResultsSnapshot.State state) throws Exception {
+                        if (!state.pages.isEmpty() && (query == null || query.equals(state.query)))
+                            showSnapshot(state);
+                        else if (query != null)
+                            performQuery(query, start);
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        Log.w(TAG, "Cannot restore the results", throwable);
+                        if (query != null)
+                            performQuery(query, start);
+                    }
+                }, new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        if (query != null)
+                            performQuery(query, start);
+                    }
+                });
+    }
+
+    /**
+     * Presents the pages of the snapshot at the saved scroll position and continues the pagination after them
+     */
+    private void showSnapshot(ResultsSnapshot.State state) {
+        Log.i(TAG, String.format(".showSnapshot: query = %s, %d pages", state.query, state.pages.size()));
+        adapter.clear();
+        mCoverPreloader.reset();
+        if (mVolumesPager != null)
+            mVolumesPager.stop();
+        mFilterSource = null;
+        mReplaceOnNextPage = false;
+        // the records past the restored pages are dropped, the pager appends to them
+        getResultsSnapshot().restart(state);
+        for (int i = 0; i < state.pages.size(); i++)
+            adapter.addPage(state.start + i * state.pageSize, state.pageSize, 0, state.pages.get(i));
+        updateResultPlaceHolder();
+        StartupTrace.traceFirstResult(mBookSearchBinding.booksRv);
+
+        int top = 0;
+        List<BookSummary> books = adapter.getBooks();
+        for (int position = 0; position < books.size(); position++) {
+            if (books.get(position).getId().equals(state.topVolumeId)) {
+                top = position;
+                break;
+            }
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) mBookSearchBinding.booksRv.getLayoutManager();
+        layoutManager.scrollToPositionWithOffset(top, top > 0 ? state.topOffset : 0);
+
+        startPager(state.query, state.getNextStart(), state.pageSize, adapter.getBooksCount());
+        refreshRestoredPages(state);
+    }
+
+    /**
+     * Revalidates the restored pages one after the other in background and updates the books changed since,
+     * in the list and in the snapshot
+     */
+    private void refreshRestoredPages(final ResultsSnapshot.State state) {
+        final List<List<BookSummary>> refreshedPages = new ArrayList<>(state.pages);
+        mRestoreDisposable = Observable.range(0, state.pages.size())
+                .concatMap(new Function<Integer, ObservableSource<Pair<Integer, VolumesPage>>>() {
+                    @Override
+                    public ObservableSource<Pair<Integer, VolumesPage>> apply(Integer index) throws Exception {
+                        final int pageStart = state.start + index * state.pageSize;
+                        return getVolumesRepository().refresh(state.query, pageStart, state.pageSize)
+                                .map(new Function<VolumesPage, Pair<Integer, VolumesPage>>() {
+                                    @Override
+                                    public Pair<Integer, VolumesPage> apply(VolumesPage page) throws Exception {
+                                        return Pair.create(pageStart, page);
+                                    }
+                                })
+                                .toObservable();
+                    }
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<Pair<Integer, VolumesPage>>() {
+                    @Override
+                    public void accept(Pair<Integer, VolumesPage> refreshed) throws Exception {
+                        adapter.refreshPage(refreshed.first, refreshed.second.getItems());
+                        refreshedPages.set((refreshed.first - state.start) / state.pageSize,
+                                refreshed.second.getItems());
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        // offline, the pages not refreshed stay as they are
+                        Log.w(TAG, "Cannot revalidate the restored results", throwable);
+                        getResultsSnapshot().replaceRestoredPages(refreshedPages);
+                    }
+                }, new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        getResultsSnapshot().replaceRestoredPages(refreshedPages);
+                    }
+                });
+    }
+
+    /**
+     * Shows the volumes already seen matching the query while the remote results are loading,
+     * the remote results are then appended without the volumes already shown
+     */
+    private void searchLocally(final String query) {
+        if (mLocalSearchDisposable != null)
+            mLocalSearchDisposable.dispose();
+        mLocalSearchDisposable = getVolumesRepository()
+                .searchLocal(query, getResources().getInteger(R.integer.local_results_max))
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<List<BookSummary>>() {
+                    @Override
+                    public void accept(List<BookSummary> volumes) throws Exception {
+                        if (volumes.isEmpty() || mVolumesPager == null || !query.equals(mVolumesPager.getQuery()))
+                            return;
+                        Log.i(TAG, String.format(".searchLocally: %d local results for %s", volumes.size(), query));
+                        StartupTrace.traceFirstResult(mBookSearchBinding.booksRv);
+                        if (mReplaceOnNextPage) {
+                            mReplaceOnNextPage = false;
+                            mFilterSource = null;
+                            replaceVolumes(volumes);
+                        } else {
+                            addVolumes(volumes);
+                        }
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        Log.w(TAG, "Local search failed", throwable);
+                    }
+                });
+    }
+
+    /**
+     * @return the size of the result pages suited to the network, the resource default until it is estimated.
+     * The sizes are multiples of the default, the repository caches the larger pages as default ones.
+     */
+    private int getPageSize() {
+        return getNetworkQuality().getPageSize(getResources().getInteger(R.integer.page_size));
+    }
+
+    /**
+     * Starts the pagination of the query, as deep and with covers as large as the network allows
+     *
+     * @param firstPosition the position of the first paged item, after the items already presented
+     */
+    private void startPager(String query, int start, int pageSize, int firstPosition) {
+        StartupTrace.onQuery();
+        NetworkQualityEstimator networkQuality = getNetworkQuality();
+        Log.i(TAG, String.format(".startPager: %s, page size %d", networkQuality, pageSize));
+        adapter.setSmallCovers(networkQuality.useSmallCovers());
+        mVolumesPager = new VolumesPager(getVolumesRepository(), query, start, pageSize,
+                networkQuality.getPrefetchPages(getResources().getInteger(R.integer.prefetch_pages)),
+                firstPosition, new PagerListener());
+        invalidateOptionsMenu();
+        if (mVolumesWindow != null)
+            mVolumesWindow.cancel();
+        mVolumesWindow = new VolumesWindow(adapter,
+                new VolumesDataSource(getVolumesRepository(), query, mVolumesPager.getPageSize()),
+                getResources().getInteger(R.integer.max_loaded_pages) * pageSize, pageSize);
+        mVolumesPager.start();
+    }
+
+    /**
+     * Fetches the details of the rows on the screen and of the next few in batches, so opening them is instant.
+     * Skipped while scrolling and on a poor network, where the details are fetched when opened.
+     */
+    private void enrichVisibleRows() {
+        RecyclerView list = mBookSearchBinding.booksRv;
+        if (list.getScrollState() != RecyclerView.SCROLL_STATE_IDLE
+                || getNetworkQuality().getQuality() == NetworkQualityEstimator.Quality.POOR)
+            return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) list.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        if (first < 0)
+            return;
+        int last = Math.min(layoutManager.findLastVisibleItemPosition()
+                + getResources().getInteger(R.integer.enrich_rows_ahead), adapter.getBooksCount() - 1);
+        for (int position = first; position <= last; position++) {
+            BookSummary book = adapter.getItem(position);
+            if (book != null && book.getId() != null)
+                getVolumesEnricher().enqueue(book.getId());
+        }
+    }
+
+    /**
+     * Records the book at the top of the list into the results snapshot, restored on the next launch
+     */
+    private void saveScrollPosition() {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) mBookSearchBinding.booksRv.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        if (first < 0 || first >= adapter.getBooksCount())
+            return;
+        BookSummary book = adapter.getItem(first);
+        View view = layoutManager.findViewByPosition(first);
+        if (book == null || book.getId() == null || view == null)
+            return;
+        getResultsSnapshot().setPosition(book.getId(), view.getTop() - mBookSearchBinding.booksRv.getPaddingTop());
+    }
+
     private void handleIntent(Intent intent) {
         if (Intent.ACTION_SEARCH.equals(intent.getAction())) {
             String query = intent.getStringExtra(SearchManager.QUERY);
@@ -297,15 +696,33 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
         }
     }
 
-    private void addVolumes(List<Volume> volumes) {
+    private void addVolumes(List<BookSummary> volumes) {
         if (volumes != null && volumes.size() > 0) {
-            for (Volume volume : volumes) {
-                Log.i(TAG, volume.toString());
-            }
+            logVolumes(volumes);
             adapter.addAll(volumes);
-            adapter.notifyDataSetChanged();
         }
-        if (adapter.getItemCount() > 0)
+        updateResultPlaceHolder();
+    }
+
+    /**
+     * Logs the number of volumes presented, a single event per page rather than a line per volume
+     */
+    private void logVolumes(List<BookSummary> volumes) {
+        EventLog.event(Log.DEBUG, TAG, "volumes.presented", "count", volumes.size());
+    }
+
+    private void updateResultPlaceHolder() {
+        if (adapter.getBooksCount() > 0)
+            hideResultPlaceHolder();
+        else
+            setResultPlaceHolder(getString(R.string.search_no_results));
+    }
+
+    private void replaceVolumes(List<BookSummary> volumes) {
+        StartupTrace.traceFirstResult(mBookSearchBinding.booksRv);
+        mCoverPreloader.reset();
+        adapter.submitList(volumes);
+        if (volumes.size() > 0)
             hideResultPlaceHolder();
         else
             setResultPlaceHolder(getString(R.string.search_no_results));
@@ -338,8 +755,10 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
-        if (mVolumesObservable != null)
-            mVolumesObservable.saveState(outState);
+        if (mVolumesPager != null) {
+            outState.putString(StateParam.QUERY.name(), mVolumesPager.getQuery());
+            outState.putInt(StateParam.START.name(), mVolumesPager.getLastCommittedStart());
+        }
     }
 
     @Override
@@ -348,15 +767,21 @@ public class BookSearchActivity extends BaseActivity implements SearchView.OnQue
         String query = savedInstanceState.getString(StateParam.QUERY.name());
         if (query != null) {
             int start = savedInstanceState.getInt(StateParam.START.name(), 0);
-            performQuery(query, start);
+            restoreResults(query, start);
         }
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        saveScrollPosition();
+    }
+
     public void onStop() {
         super.onStop();
         Log.i(TAG,".onStop");
-        if (mVolumesObservable != null)
-            mVolumesObservable.cancel();
+        if (mVolumesPager != null)
+            mVolumesPager.cancel();
     }
 
     /**
@@ -8,6 +8,8 @@
 package com.exercise.booksexplorer.books;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,27 +20,66 @@ import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
-import com.bumptech.glide.Glide;
+import com.exercise.booksexplorer.GlideApp;
+import com.exercise.booksexplorer.GlideRequest;
+import com.exercise.booksexplorer.GlideRequests;
 import com.exercise.booksexplorer.R;
-import com.exercise.booksexplorer.util.StringUtils;
-import com.google.api.services.books.model.Volume;
+import com.exercise.booksexplorer.api.BookSummary;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
 
 /**
  * An adapter for RecyclerView with paging capabilities and error resiliency.
+ * The books are appended, dropped and restored in place on the main thread, notifying only the changed
+ * range, at a cost proportional to the change. A whole new list is diffed against the current one in
+ * background, and replaces it when the diff is applied; the changes arriving meanwhile wait for it.
+ * The books appended from the result pages can be dropped when far from the screen, leaving
+ * placeholders of the same positions, and restored when the pages are loaded again. The ids of the
+ * dropped books stay reserved, so no other row takes a dropped book, and no restored book duplicates
+ * a row.
  */
 public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
   private static final int ITEM = 0;
   private static final int LOADING = 1;
-  private List<Volume> mBooks;
+
+  // Stable id of the loading footer, out of the range of the volume ids hashes
+  private static final long LOADING_ID = Long.MIN_VALUE;
+  // Stable ids of the placeholders are counted from here by position
+  private static final long PLACEHOLDER_ID = LOADING_ID + 1;
+
+  // The zoom parameters of the Books thumbnails URLs, the small one is the size of the smallThumbnail links
+  private static final String COVER_ZOOM = "zoom=1&";
+  private static final String SMALL_COVER_ZOOM = "zoom=5&";
+
+  // Changed in place, except while a diff reads it in background
+  private List<BookSummary> mBooks;
+  // Ids of the books, used to drop duplicates returned by the server across pages
+  private Set<String> mIds;
+  // Incremented on every change of the books, invalidates the diffs computed against older books
+  private int mGeneration;
+  private Disposable mDiffDisposable;
+  // Books appended while a diff is in progress, added after the diff is applied
+  private List<PageBlock> mQueuedBlocks = new ArrayList<>();
+  // The runs of books appended from the result pages, in position order
+  private List<PageBlock> mBlocks = new ArrayList<>();
   private Context mContext;
   private boolean mIsLoadingAdded = false;
   private boolean mRetryPageLoad = false;
+  private boolean mSmallCovers = false;
   private int mErrResId;
   private Callbacks mCallbacks;
 
@@ -52,10 +93,39 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     void retryPageLoad();
   }
 
+  /**
+   * A run of consecutive books appended from one page of the results, dropped and restored as a whole
+   */
+  static class PageBlock {
+    // The page the books were taken from, -1 if not from a page
+    final int pageStart;
+    final int pageSize;
+    // The books until they are appended
+    List<BookSummary> volumes;
+    // The index in the page of the first book
+    final int offset;
+    // The indexes in the page of the appended books, duplicates are left out
+    int[] indexes;
+    // The ids of the appended books, kept while they are dropped
+    String[] ids;
+    int position;
+    boolean dropped;
+    boolean loading;
+
+    PageBlock(int pageStart, int pageSize, int offset, List<BookSummary> volumes) {
+      this.pageStart = pageStart;
+      this.pageSize = pageSize;
+      this.offset = offset;
+      this.volumes = volumes;
+    }
+  }
+
   BookSearchAdapter(Context context, Callbacks callbacks) {
     mContext = context;
     mCallbacks = callbacks;
     mBooks = new ArrayList<>();
+    mIds = new HashSet<>();
+    setHasStableIds(true);
   }
 
   /**
@@ -87,19 +157,27 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
    */
   @Override
   public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
-    Volume volume = mBooks.get(position);
-
     switch (getItemViewType(position)) {
       case ITEM:
-        if (volume.getVolumeInfo() != null) {
-          final BookVH bookVH = (BookVH) holder;
-          if (volume.getVolumeInfo().getImageLinks() != null)
-            Glide.with(mContext).load(volume.getVolumeInfo().getImageLinks().getThumbnail()).into(bookVH.mBookImage);
-
-          bookVH.mBookTitle.setText(volume.getVolumeInfo().getTitle());
-          bookVH.mBookAuthors.setText(StringUtils.concat(volume.getVolumeInfo().getAuthors()));
-          bookVH.mBookDescription.setText(volume.getVolumeInfo().getDescription());
+        BookSummary volume = mBooks.get(position);
+        final BookVH bookVH = (BookVH) holder;
+        if (volume == null) {
+          // placeholder of a dropped book, the page is being loaded again
+          GlideApp.with(mContext).clear(bookVH.mBookImage);
+          bookVH.mBookTitle.setText(null);
+          bookVH.mBookAuthors.setText(null);
+          bookVH.mBookDescription.setText(null);
+          break;
         }
+        if (volume.getThumbnailUrl() != null)
+          coverRequest(GlideApp.with(mContext), getCoverUrl(volume)).dontAnimate().into(bookVH.mBookImage);
+        else
+          GlideApp.with(mContext).clear(bookVH.mBookImage);
+
+        bookVH.mBookTitle.setText(volume.getTitle());
+        // precomputed while decoded, the rows show only the beginning of the description
+        bookVH.mBookAuthors.setText(volume.getAuthorsText());
+        bookVH.mBookDescription.setText(volume.getDescriptionPreview());
         break;
 
       case LOADING:
@@ -123,55 +201,254 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
   }
 
+  /**
+   * Sets the quality of the covers bound from now on, the small covers are a fraction of the bytes for slow networks
+   */
+  public void setSmallCovers(boolean smallCovers) {
+    mSmallCovers = smallCovers;
+  }
+
+  /**
+   * @return the URL of the cover of the book in the current quality, null if it has none
+   */
+  String getCoverUrl(BookSummary book) {
+    String url = book.getThumbnailUrl();
+    if (url != null && mSmallCovers)
+      url = url.replace(COVER_ZOOM, SMALL_COVER_ZOOM);
+    return url;
+  }
+
+  /**
+   * The request of a list cover, decoded at the exact size of the view as displayed by its centerCrop scale type.
+   * Shared with the {@link CoverPreloader} so the preloaded covers are found in the memory cache.
+   */
+  static GlideRequest<Drawable> coverRequest(GlideRequests glide, String thumbnailUrl) {
+    return glide.load(thumbnailUrl).centerCrop();
+  }
+
+  /**
+   * Releases the cover of a recycled view to the bitmap pool, before the view is bound again
+   */
+  @Override
+  public void onViewRecycled(RecyclerView.ViewHolder holder) {
+    super.onViewRecycled(holder);
+    if (holder instanceof BookVH)
+      GlideApp.with(mContext).clear(((BookVH) holder).mBookImage);
+  }
+
   @Override
   public int getItemCount() {
-    return mBooks == null ? 0 : mBooks.size();
+    return mBooks.size() + (mIsLoadingAdded ? 1 : 0);
   }
 
   @Override
   public int getItemViewType(int position) {
     // In loading mode the last position is the LOADING element, or remaining are ITEM
-    return (position == mBooks.size() - 1 && mIsLoadingAdded) ? LOADING : ITEM;
+    return (position == mBooks.size() && mIsLoadingAdded) ? LOADING : ITEM;
+  }
+
+  @Override
+  public long getItemId(int position) {
+    if (getItemViewType(position) == LOADING)
+      return LOADING_ID;
+    BookSummary volume = mBooks.get(position);
+    return volume != null ? stableId(volume.getId()) : PLACEHOLDER_ID + position;
   }
 
   /**
-   * Appends a book to the adapter
-   * @param volume new book to append to the adapter's list
+   * @return the number of books excluding the loading footer
    */
-  private void add(Volume volume) {
-    mBooks.add(volume);
-    notifyItemInserted(mBooks.size() - 1);
+  int getBooksCount() {
+    return mBooks.size();
   }
 
   /**
-   * Appends multiple books to the adapter
+   * @return the current books, null for the dropped books. A read only view changing with the adapter,
+   * to be copied before leaving the main thread.
+   */
+  List<BookSummary> getBooks() {
+    return Collections.unmodifiableList(mBooks);
+  }
+
+  /**
+   * Appends multiple books to the adapter. If a new list is being diffed, the books are appended to it.
    * @param volumes list of books to append to the adapter
    */
-  void addAll(List<Volume> volumes) {
-    mBooks.addAll(volumes);
-    notifyItemRangeInserted(mBooks.size() -  volumes.size(), volumes.size());
+  void addAll(List<BookSummary> volumes) {
+    append(new PageBlock(-1, 0, 0, volumes));
+  }
+
+  /**
+   * Appends books taken from a page of the results, they may be dropped and restored later
+   * @param pageStart the offset of the page
+   * @param pageSize the size of the page
+   * @param offset the index in the page of the first book
+   * @param volumes the books
+   */
+  void addPage(int pageStart, int pageSize, int offset, List<BookSummary> volumes) {
+    append(new PageBlock(pageStart, pageSize, offset, volumes));
+  }
+
+  private void append(PageBlock block) {
+    if (mDiffDisposable != null) {
+      mQueuedBlocks.add(block);
+      return;
+    }
+    List<BookSummary> volumes = block.volumes;
+    int start = mBooks.size();
+    int[] indexes = new int[volumes.size()];
+    int count = BookLists.appendDistinct(mBooks, mIds, volumes, block.offset, indexes);
+    block.volumes = null;
+    block.indexes = Arrays.copyOf(indexes, count);
+    block.ids = new String[count];
+    for (int i = 0; i < count; i++)
+      block.ids[i] = mBooks.get(start + i).getId();
+    block.position = start;
+    if (block.pageStart >= 0 && count > 0)
+      mBlocks.add(block);
+    mGeneration++;
+    notifyItemRangeInserted(start, count);
   }
 
   /**
-   * Removes a book from the adapter
-   * @param volume is the book to be removed
+   * Drops the books of the pages far from the visible ones, keeping about maxBooks books around them.
+   * The dropped books are replaced by placeholders, so the positions do not change, and their ids stay taken.
+   * @param firstVisible the first visible position
+   * @param lastVisible the last visible position
+   * @param maxBooks the number of books to keep
    */
-  private void remove(Volume volume) {
-    int position = mBooks.indexOf(volume);
-    if (position > -1) {
-      mBooks.remove(position);
-      notifyItemRemoved(position);
+  void dropDistantPages(int firstVisible, int lastVisible, int maxBooks) {
+    if (mDiffDisposable != null)
+      return;
+    int margin = Math.max(0, (maxBooks - (lastVisible - firstVisible + 1)) / 2);
+    int from = firstVisible - margin;
+    int to = lastVisible + margin;
+    for (PageBlock block : mBlocks) {
+      if (block.dropped || (block.position + block.indexes.length > from && block.position <= to))
+        continue;
+      for (int i = block.position; i < block.position + block.indexes.length; i++)
+        mBooks.set(i, null);
+      block.dropped = true;
+      mGeneration++;
+      notifyItemRangeChanged(block.position, block.indexes.length);
     }
   }
 
+  /**
+   * @return the dropped pages overlapping the positions range that are not being loaded
+   */
+  List<PageBlock> getDroppedPages(int from, int to) {
+    List<PageBlock> blocks = Collections.emptyList();
+    for (PageBlock block : mBlocks) {
+      if (block.dropped && !block.loading && block.position + block.indexes.length > from && block.position <= to) {
+        if (blocks.isEmpty())
+          blocks = new ArrayList<>();
+        blocks.add(block);
+      }
+    }
+    return blocks;
+  }
+
+  /**
+   * Restores the dropped books from the page loaded again. A book changed on the server into one presented
+   * in another row is left out, its placeholder stays.
+   * @param block the dropped block
+   * @param page the items of the page, null if it failed to load
+   */
+  void restorePage(PageBlock block, List<BookSummary> page) {
+    block.loading = false;
+    if (page == null || !block.dropped || mDiffDisposable != null || !mBlocks.contains(block))
+      return;
+    for (int index : block.indexes) {
+      // the results changed on the server, keep the placeholders
+      if (index >= page.size())
+        return;
+    }
+    for (int i = 0; i < block.indexes.length; i++) {
+      BookSummary volume = page.get(block.indexes[i]);
+      if (!replaceId(block, i, volume.getId()))
+        continue;
+      mBooks.set(block.position + i, volume);
+    }
+    block.dropped = false;
+    mGeneration++;
+    notifyItemRangeChanged(block.position, block.indexes.length);
+  }
+
+  /**
+   * Updates the books of a page presented from an older copy, like a restored snapshot, with the page
+   * loaded again. Only the books changed on the server are rebound, a book that would duplicate another
+   * one is kept as is.
+   * @param pageStart the offset of the page
+   * @param page the items of the page
+   */
+  void refreshPage(int pageStart, List<BookSummary> page) {
+    if (mDiffDisposable != null)
+      return;
+    for (PageBlock block : mBlocks) {
+      if (block.pageStart != pageStart || block.dropped)
+        continue;
+      for (int i = 0; i < block.indexes.length && block.indexes[i] < page.size(); i++) {
+        BookSummary volume = page.get(block.indexes[i]);
+        if (volume.equals(mBooks.get(block.position + i)) || !replaceId(block, i, volume.getId()))
+          continue;
+        mBooks.set(block.position + i, volume);
+        mGeneration++;
+        notifyItemChanged(block.position + i);
+      }
+    }
+  }
+
+  /**
+   * Replaces the books with a new list. The difference to the current books is computed in background
+   * and applied at once, notifying only the changed items.
+   * @param volumes the new list of books
+   */
+  void submitList(final List<BookSummary> volumes) {
+    cancelDiff();
+    final List<BookSummary> oldBooks = mBooks;
+    final int generation = mGeneration;
+    final Set<String> ids = new HashSet<>();
+    // a copy of its own, the adapter changes it once applied
+    final List<BookSummary> newBooks = BookLists.distinct(volumes, ids);
+    mDiffDisposable = Single.fromCallable(new Callable<DiffUtil.DiffResult>() {
+      @Override
+      public DiffUtil.DiffResult call() throws Exception {
+        return DiffUtil.calculateDiff(new VolumesDiffCallback(oldBooks, newBooks));
+      }
+    }).subscribeOn(Schedulers.computation())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(new Consumer<DiffUtil.DiffResult>() {
+              @Override
+              public void accept(DiffUtil.DiffResult diffResult) throws Exception {
+                mDiffDisposable = null;
+                if (generation != mGeneration) {
+                  // the books changed meanwhile, diff against the current ones
+                  submitList(newBooks);
+                  return;
+                }
+                mBlocks = new ArrayList<>();
+                setBooks(newBooks, ids);
+                diffResult.dispatchUpdatesTo(BookSearchAdapter.this);
+                List<PageBlock> queued = mQueuedBlocks;
+                mQueuedBlocks = new ArrayList<>();
+                for (PageBlock block : queued)
+                  append(block);
+              }
+            });
+  }
+
   /**
    * Remove all books from the adapter
    */
   void clear() {
+    cancelDiff();
+    int count = getItemCount();
     mIsLoadingAdded = false;
-    while (getItemCount() > 0) {
-      remove(getItem(0));
-    }
+    mRetryPageLoad = false;
+    mBlocks = new ArrayList<>();
+    setBooks(new ArrayList<BookSummary>(), new HashSet<String>());
+    notifyItemRangeRemoved(0, count);
   }
 
   /**
@@ -181,7 +458,7 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     if (mIsLoadingAdded)
       return ;
     mIsLoadingAdded = true;
-    add(new Volume());
+    notifyItemInserted(mBooks.size());
   }
 
   /**
@@ -191,21 +468,92 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     if (!mIsLoadingAdded)
       return ;
     mIsLoadingAdded = false;
+    mRetryPageLoad = false;
+    notifyItemRemoved(mBooks.size());
+  }
 
-    int position = mBooks.size() - 1;
-    Volume volume = getItem(position);
+  /**
+   * Gets a book at specified position, null if dropped
+   */
+  BookSummary getItem(int position) {
+    return mBooks.get(position);
+  }
+
+  /**
+   * Gives the id to the book of the block at the index, unless another book has it
+   * @return false if the id belongs to another book
+   */
+  private boolean replaceId(PageBlock block, int index, String id) {
+    if (id.equals(block.ids[index]))
+      return true;
+    if (!mIds.add(id))
+      return false;
+    mIds.remove(block.ids[index]);
+    block.ids[index] = id;
+    return true;
+  }
+
+  private void setBooks(List<BookSummary> books, Set<String> ids) {
+    mBooks = books;
+    mIds = ids;
+    mGeneration++;
+  }
 
-    if (volume != null) {
-      mBooks.remove(position);
-      notifyItemRemoved(position);
+  private void cancelDiff() {
+    if (mDiffDisposable != null) {
+      mDiffDisposable.dispose();
+      mDiffDisposable = null;
     }
+    mQueuedBlocks.clear();
   }
 
   /**
-   * Gets a book at specified position
+   * 64 bit FNV-1a hash of the volume id, far less collision prone than String.hashCode
    */
-  Volume getItem(int position) {
-    return mBooks.get(position);
+  private static long stableId(String volumeId) {
+    if (volumeId == null)
+      return RecyclerView.NO_ID;
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < volumeId.length(); i++) {
+      hash ^= volumeId.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash == LOADING_ID ? hash + 1 : hash;
+  }
+
+  /**
+   * Compares two lists of books by volume id and content
+   */
+  private static class VolumesDiffCallback extends DiffUtil.Callback {
+    private final List<BookSummary> mOldBooks;
+    private final List<BookSummary> mNewBooks;
+
+    VolumesDiffCallback(List<BookSummary> oldBooks, List<BookSummary> newBooks) {
+      mOldBooks = oldBooks;
+      mNewBooks = newBooks;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return mOldBooks.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return mNewBooks.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      BookSummary oldBook = mOldBooks.get(oldItemPosition);
+      return oldBook != null && oldBook.getId() != null && oldBook.getId().equals(mNewBooks.get(newItemPosition).getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      BookSummary oldBook = mOldBooks.get(oldItemPosition);
+      return oldBook != null && oldBook.equals(mNewBooks.get(newItemPosition));
+    }
   }
 
   /**
@@ -216,8 +564,16 @@ public class BookSearchAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
    */
   void showRetry(boolean show, int errResId) {
     mRetryPageLoad = show;
-    notifyItemChanged(mBooks.size() - 1);
     mErrResId = errResId;
+    if (mIsLoadingAdded)
+      notifyItemChanged(mBooks.size());
+  }
+
+  /**
+   * @return true if the pagination retry footer view is displayed
+   */
+  boolean isRetryShown() {
+    return mIsLoadingAdded && mRetryPageLoad;
   }
 
   /**
@@ -0,0 +1,65 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Local filtering of loaded search results
+ */
+package com.exercise.booksexplorer.books;
+
+import com.exercise.booksexplorer.api.BookSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Narrows already loaded results to a longer query while its own results are loading
+ */
+class BooksFilter {
+
+    /**
+     * Normalizes a query to lower case with collapsed white spaces
+     */
+    static String normalize(String query) {
+        if (query == null)
+            return "";
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.getDefault());
+    }
+
+    /**
+     * @return true if the new query extends the current one, so its results are likely a subset of the current
+     */
+    static boolean isNarrowing(String currentQuery, String newQuery) {
+        String current = normalize(currentQuery);
+        String next = normalize(newQuery);
+        return !current.isEmpty() && next.length() > current.length() && next.startsWith(current);
+    }
+
+    /**
+     * Selects the books containing every word of the query in their title, authors or description.
+     * Not to be called on the main thread with many books.
+     *
+     * @param books the books to filter
+     * @param query the query to match
+     * @return the matching books in their original order
+     */
+    static List<BookSummary> filter(List<BookSummary> books, String query) {
+        String[] terms = normalize(query).split(" ");
+        List<BookSummary> result = new ArrayList<>();
+        for (BookSummary book : books) {
+            // the dropped books are not filtered, their pages are not in memory
+            if (book == null)
+                continue;
+            String text = book.getSearchText();
+            boolean matches = true;
+            for (String term : terms) {
+                if (!text.contains(term)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches)
+                result.add(book);
+        }
+        return result;
+    }
+}
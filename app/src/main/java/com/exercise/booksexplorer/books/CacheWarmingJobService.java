@@ -0,0 +1,210 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Background warming of the caches for the familiar searches
+ */
+package com.exercise.booksexplorer.books;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Process;
+import android.util.Log;
+
+import com.bumptech.glide.request.FutureTarget;
+import com.exercise.booksexplorer.BooksExplorerApplication;
+import com.exercise.booksexplorer.GlideApp;
+import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.VolumesCache;
+import com.exercise.booksexplorer.api.VolumesPageDecoder;
+import com.exercise.booksexplorer.api.VolumesRepository;
+import com.exercise.booksexplorer.dagger.components.AppComponent;
+import com.exercise.booksexplorer.util.EventLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads the first pages of the pinned and recent queries into the {@link VolumesCache}, with the page size
+ * of the search screen, and the covers of their first books into the Glide disk cache, so a familiar
+ * search is presented from the caches without waiting for the network. The details of the books are not
+ * warmed, they are kept in memory only and would not outlive the process of the job.
+ * <p>
+ * The job runs about twice a day, only on an unmetered network while the device is charging, so its
+ * requests are kept out of the network quality estimate. A run is bounded by a budget of bytes it writes
+ * to the caches. When the constraints are lost the run stops before its next request, its waits are
+ * interrupted, and the job is rescheduled.
+ */
+public class CacheWarmingJobService extends JobService {
+    private static final String TAG = CacheWarmingJobService.class.getSimpleName();
+
+    private static final int JOB_ID = 1;
+    private static final long PERIOD_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+    // What a run warms per query
+    private static final int MAX_QUERIES = 5;
+    private static final int PAGES_PER_QUERY = 2;
+    private static final int COVERS_PER_QUERY = 20;
+
+    // The bytes a run may write to the caches
+    private static final long MAX_BYTES = 4 * 1024 * 1024;
+
+    private static final long COVER_TIMEOUT_SECONDS = 30;
+
+    // The run in progress
+    private Run mRun;
+
+    /**
+     * Schedules the periodic job unless scheduled already
+     */
+    public static void schedule(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null)
+            return;
+        for (JobInfo job : scheduler.getAllPendingJobs()) {
+            if (job.getId() == JOB_ID)
+                return;
+        }
+        scheduler.schedule(new JobInfo.Builder(JOB_ID, new ComponentName(context, CacheWarmingJobService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPeriodic(PERIOD_MILLIS)
+                .setPersisted(true)
+                .build());
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        mRun = new Run(params);
+        mRun.start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        if (mRun != null)
+            mRun.cancel();
+        mRun = null;
+        return true;
+    }
+
+    /**
+     * A run of the job on its own background thread, a run stopped by the system is not reported finished
+     */
+    private class Run extends Thread {
+        private final JobParameters mParams;
+        private volatile boolean mStopped;
+
+        Run(JobParameters params) {
+            super("cache-warming");
+            mParams = params;
+        }
+
+        void cancel() {
+            mStopped = true;
+            // ends the waits for the covers and the retries
+            interrupt();
+        }
+
+        @Override
+        public void run() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            try {
+                warm(this);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Cache warming failed", e);
+            }
+            if (!mStopped)
+                jobFinished(mParams, false);
+        }
+
+        boolean isOverBudget(long bytes) {
+            return mStopped || bytes >= MAX_BYTES;
+        }
+    }
+
+    private void warm(Run run) {
+        AppComponent app = ((BooksExplorerApplication) getApplication()).getAppComponent();
+        // the size of the pages requested by the search screen, part of their cache key
+        int pageSize = getResources().getInteger(R.integer.page_size);
+        long bytes = 0;
+        int warmed = 0;
+        for (String query : app.queryHistory().getFamiliar(MAX_QUERIES)) {
+            List<BookSummary> books = new ArrayList<>();
+            for (int page = 0; page < PAGES_PER_QUERY; page++) {
+                if (run.isOverBudget(bytes))
+                    return;
+                long loaded = loadPage(app.volumesRepository(), query, page * pageSize, pageSize, books);
+                if (loaded < 0)
+                    break;
+                bytes += loaded;
+            }
+            if (run.isOverBudget(bytes))
+                return;
+            for (int i = 0; i < Math.min(COVERS_PER_QUERY, books.size()); i++) {
+                if (run.isOverBudget(bytes))
+                    return;
+                bytes += loadCover(books.get(i).getThumbnailUrl());
+            }
+            warmed++;
+            EventLog.event(Log.INFO, TAG, "warmed", "queries", warmed, "bytes", bytes);
+        }
+    }
+
+    /**
+     * Loads a page of the query through the repository, so from the network only when not fresh in the cache
+     *
+     * @param books receives the items of the page
+     * @return the bytes written to the cache, -1 if it failed or the results ended
+     */
+    private long loadPage(VolumesRepository repository, String query, int start, int pageSize,
+                          final List<BookSummary> books) {
+        final int count = books.size();
+        try {
+            long written = repository.warm(query, start, pageSize, new VolumesPageDecoder.Callback() {
+                @Override
+                public void onTotalItems(int totalItems) {
+                }
+
+                @Override
+                public void onItem(BookSummary item) {
+                    books.add(item);
+                }
+            });
+            return books.size() - count < pageSize ? -1 : written;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot warm " + query + " at " + start, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Downloads the cover into the Glide disk cache, where the list finds it
+     *
+     * @return the size of the cover file
+     */
+    private long loadCover(String url) {
+        if (url == null)
+            return 0;
+        FutureTarget<File> cover = GlideApp.with(getApplicationContext()).downloadOnly().load(url).submit();
+        try {
+            return cover.get(COVER_TIMEOUT_SECONDS, TimeUnit.SECONDS).length();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Cannot warm the cover " + url, e);
+        } finally {
+            GlideApp.with(getApplicationContext()).clear(cover);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Preloading of the covers of the rows about to be scrolled in
+ */
+package com.exercise.booksexplorer.books;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.exercise.booksexplorer.GlideRequests;
+import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.api.BookSummary;
+
+/**
+ * Warms the Glide caches with the covers of the rows ahead of the screen in the scroll direction,
+ * at the size of the list thumbnails, so the rows appear with their covers already decoded.
+ * The faster the scroll, the more rows are preloaded, up to a maximum. Image requests are paused
+ * while the list is flung, as the rows passing by are not looked at, and resumed when it settles.
+ * All methods must be called from the main thread.
+ */
+class CoverPreloader extends RecyclerView.OnScrollListener {
+    // The scroll distance preloaded, in frames at the current speed
+    private static final int LOOKAHEAD_FRAMES = 30;
+
+    private final GlideRequests mGlide;
+    private final BookSearchAdapter mAdapter;
+    private final LinearLayoutManager mLayoutManager;
+    private final int mMinRows;
+    private final int mMaxRows;
+
+    // The size of the list thumbnails, known once a row is laid out
+    private int mCoverWidth;
+    private int mCoverHeight;
+
+    private boolean mForward = true;
+    private int mRowsAhead;
+    private boolean mPaused;
+
+    // The preloaded positions range, not preloaded again
+    private int mPreloadedFrom = -1;
+    private int mPreloadedTo = -1;
+
+    /**
+     * @param minRows the rows preloaded ahead when the list scrolls slowly or rests
+     * @param maxRows the rows preloaded ahead when the list scrolls fast
+     */
+    CoverPreloader(GlideRequests glide, BookSearchAdapter adapter, LinearLayoutManager layoutManager,
+                   int minRows, int maxRows) {
+        mGlide = glide;
+        mAdapter = adapter;
+        mLayoutManager = layoutManager;
+        mMinRows = minRows;
+        mMaxRows = maxRows;
+        mRowsAhead = minRows;
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+            mPaused = true;
+            mGlide.pauseRequests();
+        } else if (mPaused) {
+            mPaused = false;
+            mGlide.resumeRequests();
+            mRowsAhead = mMinRows;
+            preload();
+        }
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0)
+            return;
+        mForward = dy > 0;
+        View row = mLayoutManager.getChildAt(0);
+        if (row != null && row.getHeight() > 0) {
+            int rows = Math.round((float) Math.abs(dy) * LOOKAHEAD_FRAMES / row.getHeight());
+            mRowsAhead = Math.max(mMinRows, Math.min(mMaxRows, rows));
+        }
+        if (!mPaused)
+            preload();
+    }
+
+    /**
+     * Notifies for new rows, the ones ahead of the screen are preloaded
+     */
+    void onItemsAdded() {
+        if (!mPaused)
+            preload();
+    }
+
+    /**
+     * Forgets the preloaded rows, when the list is replaced
+     */
+    void reset() {
+        mPreloadedFrom = -1;
+        mPreloadedTo = -1;
+    }
+
+    private void preload() {
+        int first = mLayoutManager.findFirstVisibleItemPosition();
+        int last = mLayoutManager.findLastVisibleItemPosition();
+        if (first < 0 || !measureCover())
+            return;
+
+        int from;
+        int to;
+        if (mForward) {
+            from = last + 1;
+            to = Math.min(last + mRowsAhead, mAdapter.getBooksCount() - 1);
+        } else {
+            from = Math.max(first - mRowsAhead, 0);
+            to = first - 1;
+        }
+        for (int position = from; position <= to; position++) {
+            if (position >= mPreloadedFrom && position <= mPreloadedTo)
+                continue;
+            BookSummary book = mAdapter.getItem(position);
+            if (book != null && book.getThumbnailUrl() != null)
+                BookSearchAdapter.coverRequest(mGlide, mAdapter.getCoverUrl(book)).preload(mCoverWidth, mCoverHeight);
+        }
+        if (from <= to) {
+            mPreloadedFrom = from;
+            mPreloadedTo = to;
+        }
+    }
+
+    /**
+     * Takes the thumbnail size from a visible row
+     */
+    private boolean measureCover() {
+        if (mCoverWidth > 0 && mCoverHeight > 0)
+            return true;
+        for (int i = 0; i < mLayoutManager.getChildCount(); i++) {
+            View cover = mLayoutManager.getChildAt(i).findViewById(R.id.book_image);
+            if (cover != null && cover.getWidth() > 0 && cover.getHeight() > 0) {
+                mCoverWidth = cover.getWidth();
+                mCoverHeight = cover.getHeight();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -17,6 +17,9 @@ import android.support.v7.widget.RecyclerView;
  */
 public abstract class PaginationScrollListener extends RecyclerView.OnScrollListener {
     private LinearLayoutManager layoutManager;
+    // The range of the items on the screen last reported
+    private int firstVisible = -1;
+    private int lastVisible = -1;
 
     PaginationScrollListener(LinearLayoutManager layoutManager) {
         this.layoutManager = layoutManager;
@@ -27,21 +30,34 @@ public abstract class PaginationScrollListener extends RecyclerView.OnScrollList
         super.onScrolled(recyclerView, dx, dy);
 
         int visibleItemCount = layoutManager.getChildCount();
-        int totalItemCount = layoutManager.getItemCount();
         int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
 
-        if (!isLoading() && !isLastPage()) {
-            if ((visibleItemCount + firstVisibleItemPosition) >= totalItemCount - 50
-                    && firstVisibleItemPosition >= 0) {
-                loadMoreItems();
-            }
+        int lastVisibleItemPosition = firstVisibleItemPosition + visibleItemCount - 1;
+        if (firstVisibleItemPosition >= 0
+                && (firstVisibleItemPosition != firstVisible || lastVisibleItemPosition != lastVisible)) {
+            firstVisible = firstVisibleItemPosition;
+            lastVisible = lastVisibleItemPosition;
+            onVisibleItemsChanged(firstVisibleItemPosition, lastVisibleItemPosition);
+        }
+
+        if (!isLastPage() && firstVisibleItemPosition >= 0) {
+            loadMoreItems(lastVisibleItemPosition);
         }
     }
 
-    protected abstract void loadMoreItems();
+    /**
+     * Called on a scroll changing the range of the items on the screen
+     */
+    protected void onVisibleItemsChanged(int firstVisibleItemPosition, int lastVisibleItemPosition) {
+    }
 
-    public abstract boolean isLastPage();
+    /**
+     * Called on every scroll while there are more pages, the implementation decides how many pages to request ahead
+     *
+     * @param lastVisibleItemPosition the adapter position of the last item on the screen
+     */
+    protected abstract void loadMoreItems(int lastVisibleItemPosition);
 
-    public abstract boolean isLoading();
+    public abstract boolean isLastPage();
 
 }
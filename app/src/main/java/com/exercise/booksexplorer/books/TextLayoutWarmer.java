@@ -0,0 +1,105 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Background text measurement of the rows about to be shown
+ */
+package com.exercise.booksexplorer.books;
+
+import android.support.v7.widget.RecyclerView;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.widget.TextView;
+
+import com.exercise.booksexplorer.api.BookSummary;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Lays out the texts of the rows of a new page on a background thread with the paints and widths
+ * of the row text views, filling the framework text layout cache so measuring the rows on the
+ * main thread while scrolling finds the words already shaped.
+ * The paints are taken from the first row laid out, until then the pages are not warmed.
+ */
+class TextLayoutWarmer {
+    private final Executor mExecutor;
+
+    private TextSpec mTitle;
+    private TextSpec mAuthors;
+    private TextSpec mDescription;
+
+    /**
+     * The paint and the size of a text view
+     */
+    private static class TextSpec {
+        final TextPaint paint;
+        final int width;
+        final int maxLines;
+
+        TextSpec(TextView view) {
+            // a copy, the view's paint is not used from another thread
+            paint = new TextPaint(view.getPaint());
+            width = view.getWidth() - view.getTotalPaddingLeft() - view.getTotalPaddingRight();
+            maxLines = view.getMaxLines();
+        }
+
+        void layout(CharSequence text) {
+            if (text == null || text.length() == 0 || width <= 0)
+                return;
+            StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                    .setMaxLines(maxLines)
+                    .build();
+        }
+    }
+
+    TextLayoutWarmer(Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Lays out the texts of the books in background
+     *
+     * @param books        the books of a new page
+     * @param recyclerView the list, to take the paints from once a row is laid out
+     */
+    void warm(final List<BookSummary> books, RecyclerView recyclerView) {
+        if (mDescription == null && !capture(recyclerView))
+            return;
+        final TextSpec title = mTitle;
+        final TextSpec authors = mAuthors;
+        final TextSpec description = mDescription;
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (BookSummary book : books) {
+                        title.layout(book.getTitle());
+                        authors.layout(book.getAuthorsText());
+                        description.layout(book.getDescriptionPreview());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the I/O threads are busy, the rows are measured when bound
+        }
+    }
+
+    private boolean capture(RecyclerView recyclerView) {
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(recyclerView.getChildAt(i));
+            if (holder instanceof BookSearchAdapter.BookVH) {
+                BookSearchAdapter.BookVH row = (BookSearchAdapter.BookVH) holder;
+                if (row.mBookDescription.getWidth() > 0) {
+                    mTitle = new TextSpec(row.mBookTitle);
+                    mAuthors = new TextSpec(row.mBookAuthors);
+                    mDescription = new TextSpec(row.mBookDescription);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Positional loader of the search results
+ */
+package com.exercise.booksexplorer.books;
+
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.VolumesPage;
+import com.exercise.booksexplorer.api.VolumesRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Single;
+import io.reactivex.functions.BiConsumer;
+
+/**
+ * Loads any range of the results of a query through the {@link VolumesRepository}, so from the disk
+ * cache when the range was seen before. Used to reload the pages dropped by the {@link VolumesWindow}.
+ */
+class VolumesDataSource {
+    private final VolumesRepository mRepository;
+    private final String mQuery;
+    private final int mPageSize;
+
+    /**
+     * @param query    the search term
+     * @param pageSize the page size the results were requested with, so the cached pages are reused
+     */
+    VolumesDataSource(VolumesRepository repository, String query, int pageSize) {
+        mRepository = repository;
+        mQuery = query;
+        mPageSize = pageSize;
+    }
+
+    /**
+     * Loads the range on the I/O scheduler, joining an identical request in progress
+     *
+     * @return Single emitting the items of the range
+     */
+    Single<List<BookSummary>> loadRange(int startPosition, int count) {
+        return mRepository.observe(mQuery, startPosition, count)
+                .collect(new Callable<List<BookSummary>>() {
+                    @Override
+                    public List<BookSummary> call() throws Exception {
+                        return new ArrayList<>();
+                    }
+                }, new BiConsumer<List<BookSummary>, VolumesPage>() {
+                    @Override
+                    public void accept(List<BookSummary> items, VolumesPage chunk) throws Exception {
+                        items.addAll(chunk.getItems());
+                    }
+                });
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Search results pagination with lookahead prefetch of multiple pages
+ */
+package com.exercise.booksexplorer.books;
+
+import android.util.Log;
+
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.VolumesPage;
+import com.exercise.booksexplorer.api.VolumesRepository;
+import com.exercise.booksexplorer.util.EventLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+
+/**
+ * Keeps up to N pages requested or buffered ahead of the last visible item and commits them
+ * to the {@link Listener} strictly in order, even if the responses arrive out of order.
+ * All methods must be called from the main thread.
+ */
+class VolumesPager {
+    private static final String TAG = VolumesPager.class.getSimpleName();
+
+    // Bounds of the prefetch depth in pages
+    static final int MIN_PREFETCH_PAGES = 1;
+    static final int MAX_PREFETCH_PAGES = 5;
+
+    // Google Books API limit of maxResults
+    static final int MAX_PAGE_SIZE = 40;
+
+    /**
+     * Pager events, delivered on the main thread
+     */
+    interface Listener {
+        /**
+         * Called with the items of the next page in order. A page is delivered in several chunks
+         * while it is decoded, so the first items can be presented before the whole page is read.
+         *
+         * @param startIndex the offset of the page
+         * @param offset     the index in the page of the first item
+         * @param volumes    the page items, empty if the end of the results is reached
+         */
+        void onPageLoaded(int startIndex, int offset, List<BookSummary> volumes);
+
+        /**
+         * Called when the next page in order failed to load. Pagination stops until {@link #retry()}
+         */
+        void onPageFailed(int startIndex, Throwable throwable);
+
+        /**
+         * Called when {@link #isLoading()} or {@link #isWaitingForNextPage()} may have changed
+         */
+        void onStateChanged();
+    }
+
+    /**
+     * A page request, pending or completed
+     */
+    private static class Page {
+        final int start;
+        final int size;
+        Disposable disposable;
+        // Items received but not committed yet
+        List<BookSummary> volumes = new ArrayList<>();
+        // Items received by the current request
+        int received;
+        // Items passed to the listener
+        int committed;
+        boolean complete;
+        Throwable error;
+
+        Page(int start, int size) {
+            this.start = start;
+            this.size = size;
+        }
+    }
+
+    private final VolumesRepository mRepository;
+    private final String mQuery;
+    private final int mPageSize;
+    private final int mPrefetchPages;
+    private final Listener mListener;
+
+    // The position on the screen of the first item of the pager, after the items presented before it
+    private final int mFirstPosition;
+
+    // Requested pages not committed yet, by start offset
+    private final TreeMap<Integer, Page> mPages = new TreeMap<>();
+
+    // The offset of the next page to request
+    private int mNextStart;
+
+    // The offset of the next page to commit
+    private int mCommitStart;
+
+    // The offset of the last committed page
+    private int mLastCommittedStart;
+
+    // The number of items committed to the listener
+    private int mCommittedCount;
+
+    // The last item of the pager visible on the screen
+    private int mLastVisiblePosition = -1;
+
+    // The total items by the query result, -1 until the first page arrives
+    private int mTotalItems = -1;
+
+    // Set when a page came back empty
+    private boolean mEnded;
+
+    // Set when the query is superseded
+    private boolean mStopped;
+
+    /**
+     * @param query         the search term
+     * @param start         the offset of the first page
+     * @param pageSize      the number of items per page, up to {@link #MAX_PAGE_SIZE}
+     * @param prefetchPages the number of pages to keep ahead of the last visible item,
+     *                      bounded by {@link #MIN_PREFETCH_PAGES} and {@link #MAX_PREFETCH_PAGES}
+     * @param firstPosition the position of the first item of the pager on the screen, like after
+     *                      the restored pages when the pager continues them
+     */
+    VolumesPager(VolumesRepository repository, String query, int start, int pageSize, int prefetchPages,
+                 int firstPosition, Listener listener) {
+        mRepository = repository;
+        mQuery = query;
+        mNextStart = start;
+        mCommitStart = start;
+        mLastCommittedStart = start;
+        mPageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        mPrefetchPages = Math.max(MIN_PREFETCH_PAGES, Math.min(prefetchPages, MAX_PREFETCH_PAGES));
+        mFirstPosition = firstPosition;
+        mListener = listener;
+    }
+
+    String getQuery() {
+        return mQuery;
+    }
+
+    int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * @return the offset of the last page passed to the listener
+     */
+    int getLastCommittedStart() {
+        return mLastCommittedStart;
+    }
+
+    /**
+     * @return true if any page request is in progress
+     */
+    boolean isLoading() {
+        for (Page page : mPages.values()) {
+            if (page.disposable != null)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if more volume pages are present
+     */
+    boolean hasMore() {
+        if (mEnded || mStopped)
+            return false;
+        return mTotalItems < 0 || mCommitStart < mTotalItems;
+    }
+
+    /**
+     * @return true if the user reached the last committed item while the next page is still loading
+     */
+    boolean isWaitingForNextPage() {
+        if (mCommittedCount == 0 || !hasMore())
+            return false;
+        Page next = mPages.get(mCommitStart);
+        return mLastVisiblePosition >= mCommittedCount - 1 && (next == null || next.disposable != null);
+    }
+
+    /**
+     * Requests the first pages
+     */
+    void start() {
+        fill();
+    }
+
+    /**
+     * Notifies for the last item visible on the screen, requesting more pages if needed
+     */
+    void onScrolled(int lastVisiblePosition) {
+        if (lastVisiblePosition - mFirstPosition == mLastVisiblePosition)
+            return;
+        mLastVisiblePosition = lastVisiblePosition - mFirstPosition;
+        fill();
+    }
+
+    /**
+     * Retries all failed pages
+     */
+    void retry() {
+        Log.i(TAG, ".retry");
+        if (mStopped)
+            return;
+        for (Page page : new ArrayList<>(mPages.values())) {
+            if (page.error != null)
+                load(page);
+        }
+        mListener.onStateChanged();
+    }
+
+    /**
+     * Cancels all pending requests. They are requested again on the next scroll or retry.
+     */
+    void cancel() {
+        for (Page page : mPages.values()) {
+            if (page.disposable != null) {
+                page.disposable.dispose();
+                page.disposable = null;
+                page.error = new InterruptedException("Cancelled");
+            }
+        }
+    }
+
+    /**
+     * Cancels all pending requests for good, the pager does not load pages anymore
+     */
+    void stop() {
+        mStopped = true;
+        cancel();
+    }
+
+    boolean isStopped() {
+        return mStopped;
+    }
+
+    /**
+     * Requests pages until the configured number of pages is loading or buffered ahead of the viewport
+     */
+    private void fill() {
+        if (mStopped)
+            return;
+        // re-request the pages cancelled before
+        for (Page page : new ArrayList<>(mPages.values())) {
+            if (page.error instanceof InterruptedException)
+                load(page);
+        }
+
+        while (pagesAhead() < mPrefetchPages && canRequestMore()) {
+            Page page = new Page(mNextStart, mPageSize);
+            mNextStart += mPageSize;
+            mPages.put(page.start, page);
+            load(page);
+        }
+        mListener.onStateChanged();
+    }
+
+    /**
+     * @return the number of pages loading, buffered, or committed but not yet visible
+     */
+    private int pagesAhead() {
+        int committedAhead = mCommittedCount - 1 - mLastVisiblePosition;
+        return mPages.size() + (committedAhead > 0 ? committedAhead / mPageSize : 0);
+    }
+
+    private boolean canRequestMore() {
+        if (mEnded)
+            return false;
+        // the total is unknown until the first page arrives
+        if (mTotalItems < 0)
+            return mPages.isEmpty() && mNextStart == mCommitStart;
+        return mNextStart < mTotalItems;
+    }
+
+    private void load(final Page page) {
+        EventLog.event(Log.DEBUG, TAG, "page.load", "start", page.start, "size", page.size);
+        page.error = null;
+        page.received = 0;
+        page.volumes = new ArrayList<>();
+        page.disposable = mRepository.observe(mQuery, page.start, page.size)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        new Consumer<VolumesPage>() {
+                            @Override
+                            public void accept(VolumesPage chunk) throws Exception {
+                                onChunk(page, chunk);
+                            }
+                        }, new Consumer<Throwable>() {
+                            @Override
+                            public void accept(Throwable throwable) throws Exception {
+                                Log.e(TAG, throwable.getMessage(), throwable);
+                                page.disposable = null;
+                                page.error = throwable;
+                                commit();
+                                mListener.onStateChanged();
+                            }
+                        }, new Action() {
+                            @Override
+                            public void run() throws Exception {
+                                page.disposable = null;
+                                page.complete = true;
+                                commit();
+                                fill();
+                            }
+                        });
+    }
+
+    private void onChunk(Page page, VolumesPage chunk) {
+        if (chunk.getTotalItems() >= 0)
+            mTotalItems = chunk.getTotalItems();
+        for (BookSummary item : chunk.getItems()) {
+            // skip the items committed before a retry of a partially loaded page
+            if (page.received++ >= page.committed)
+                page.volumes.add(item);
+        }
+        commit();
+    }
+
+    /**
+     * Passes the received items to the listener in page order, stopping at the first incomplete page
+     */
+    private void commit() {
+        Page page = mPages.get(mCommitStart);
+        while (page != null && (page.complete || !page.volumes.isEmpty())) {
+            List<BookSummary> volumes = page.volumes;
+            int offset = page.committed;
+            page.volumes = new ArrayList<>();
+            page.committed += volumes.size();
+            mCommittedCount += volumes.size();
+            mLastCommittedStart = page.start;
+            if (!page.complete) {
+                // the head page is still loading, present its first items
+                mListener.onPageLoaded(page.start, offset, volumes);
+                break;
+            }
+            mPages.remove(page.start);
+            mCommitStart = page.start + page.size;
+            if (page.committed == 0 || (mTotalItems >= 0 && mCommitStart >= mTotalItems))
+                end();
+            mListener.onPageLoaded(page.start, offset, volumes);
+            page = mPages.get(mCommitStart);
+        }
+        if (page != null && page.error != null && !(page.error instanceof InterruptedException))
+            mListener.onPageFailed(page.start, page.error);
+    }
+
+    /**
+     * Stops the pagination, dropping the pages requested past the end of the results
+     */
+    private void end() {
+        mEnded = true;
+        for (Map.Entry<Integer, Page> entry : mPages.entrySet()) {
+            if (entry.getValue().disposable != null)
+                entry.getValue().disposable.dispose();
+        }
+        mPages.clear();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Bounded window of the search results kept in memory
+ */
+package com.exercise.booksexplorer.books;
+
+import android.util.Log;
+
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.util.EventLog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.functions.Consumer;
+
+/**
+ * Keeps the books of a limited number of pages around the visible items in the {@link BookSearchAdapter}.
+ * The pages scrolled far away are dropped, leaving placeholders, and loaded again from the
+ * {@link VolumesDataSource} when they come near the screen, so the memory held by the results
+ * does not grow with the scrolled distance. All methods must be called from the main thread.
+ */
+class VolumesWindow {
+    private static final String TAG = VolumesWindow.class.getSimpleName();
+
+    private final BookSearchAdapter mAdapter;
+    private final VolumesDataSource mDataSource;
+    private final int mMaxBooks;
+    private final int mReloadDistance;
+    private final CompositeDisposable mLoads = new CompositeDisposable();
+
+    /**
+     * @param maxBooks       the number of books kept around the visible ones
+     * @param reloadDistance the distance from the screen in items a dropped page is loaded again at
+     */
+    VolumesWindow(BookSearchAdapter adapter, VolumesDataSource dataSource, int maxBooks, int reloadDistance) {
+        mAdapter = adapter;
+        mDataSource = dataSource;
+        mMaxBooks = maxBooks;
+        mReloadDistance = reloadDistance;
+    }
+
+    /**
+     * Notifies for a change of the visible items, dropping the distant pages and loading the near dropped ones
+     */
+    void onScrolled(int firstVisible, int lastVisible) {
+        mAdapter.dropDistantPages(firstVisible, lastVisible, mMaxBooks);
+
+        List<BookSearchAdapter.PageBlock> dropped =
+                mAdapter.getDroppedPages(firstVisible - mReloadDistance, lastVisible + mReloadDistance);
+        if (dropped.isEmpty())
+            return;
+        // a page delivered in chunks spans several blocks, load it once for all of them
+        Map<Integer, List<BookSearchAdapter.PageBlock>> pages = new LinkedHashMap<>();
+        for (BookSearchAdapter.PageBlock block : dropped) {
+            List<BookSearchAdapter.PageBlock> blocks = pages.get(block.pageStart);
+            if (blocks == null) {
+                blocks = new ArrayList<>();
+                pages.put(block.pageStart, blocks);
+            }
+            block.loading = true;
+            blocks.add(block);
+        }
+        for (List<BookSearchAdapter.PageBlock> blocks : pages.values())
+            load(blocks);
+    }
+
+    /**
+     * Cancels the page loads in progress, when the results are replaced
+     */
+    void cancel() {
+        mLoads.clear();
+    }
+
+    private void load(final List<BookSearchAdapter.PageBlock> blocks) {
+        final int start = blocks.get(0).pageStart;
+        final int size = blocks.get(0).pageSize;
+        EventLog.event(Log.DEBUG, TAG, "page.reload", "start", start, "size", size);
+        mLoads.add(mDataSource.loadRange(start, size)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(new Consumer<List<BookSummary>>() {
+                    @Override
+                    public void accept(List<BookSummary> page) throws Exception {
+                        for (BookSearchAdapter.PageBlock block : blocks)
+                            mAdapter.restorePage(block, page);
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        // loaded again when the visible items change
+                        Log.w(TAG, throwable.getMessage());
+                        for (BookSearchAdapter.PageBlock block : blocks)
+                            mAdapter.restorePage(block, null);
+                    }
+                }));
+    }
+}
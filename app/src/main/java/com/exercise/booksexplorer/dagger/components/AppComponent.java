@@ -7,8 +7,18 @@ package com.exercise.booksexplorer.dagger.components;
 
 import android.app.Application;
 
+import com.exercise.booksexplorer.api.NetworkQualityEstimator;
+import com.exercise.booksexplorer.api.QueryHistory;
+import com.exercise.booksexplorer.api.RequestMetrics;
+import com.exercise.booksexplorer.api.ResultsSnapshot;
+import com.exercise.booksexplorer.api.VolumeStore;
+import com.exercise.booksexplorer.api.VolumesCache;
+import com.exercise.booksexplorer.api.VolumesEnricher;
+import com.exercise.booksexplorer.api.VolumesIndex;
+import com.exercise.booksexplorer.api.VolumesRepository;
 import com.exercise.booksexplorer.dagger.modules.AppModule;
 import com.exercise.booksexplorer.dagger.modules.BookModule;
+import com.exercise.booksexplorer.util.IoScheduler;
 import com.google.api.services.books.Books;
 
 import javax.inject.Singleton;
@@ -19,5 +29,15 @@ import dagger.Component;
 @Component(modules = { AppModule.class, BookModule.class} )
 public interface AppComponent {
   Application application();
+  IoScheduler ioScheduler();
   Books books();
+  VolumesCache volumesCache();
+  VolumesIndex volumesIndex();
+  VolumesRepository volumesRepository();
+  VolumeStore volumeStore();
+  VolumesEnricher volumesEnricher();
+  ResultsSnapshot resultsSnapshot();
+  QueryHistory queryHistory();
+  RequestMetrics requestMetrics();
+  NetworkQualityEstimator networkQualityEstimator();
 }
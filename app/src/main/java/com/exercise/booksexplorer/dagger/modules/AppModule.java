@@ -8,6 +8,8 @@ package com.exercise.booksexplorer.dagger.modules;
 import android.app.Application;
 import android.content.res.Resources;
 
+import com.exercise.booksexplorer.util.IoScheduler;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -15,6 +17,10 @@ import dagger.Provides;
 
 @Module
 public class AppModule {
+  // Limits of the shared I/O thread pool
+  private static final int IO_THREADS = 4;
+  private static final int IO_QUEUE_DEPTH = 32;
+
   private Application mApplication;
 
   public AppModule(Application application) {
@@ -32,4 +38,10 @@ public class AppModule {
   Resources providesResources(Application application) {
     return application.getResources();
   }
+
+  @Provides
+  @Singleton
+  IoScheduler providesIoScheduler() {
+    return new IoScheduler("books-io", IO_THREADS, IO_QUEUE_DEPTH);
+  }
 }
@@ -6,21 +6,112 @@
 package com.exercise.booksexplorer.dagger.modules;
 
 import android.app.Application;
+import android.content.Context;
 
+import com.exercise.booksexplorer.BuildConfig;
 import com.exercise.booksexplorer.R;
+import com.exercise.booksexplorer.api.CircuitBreaker;
+import com.exercise.booksexplorer.api.NetworkQualityEstimator;
+import com.exercise.booksexplorer.api.OkHttpTransport;
+import com.exercise.booksexplorer.api.QueryHistory;
+import com.exercise.booksexplorer.api.RequestHedger;
+import com.exercise.booksexplorer.api.RequestMetrics;
+import com.exercise.booksexplorer.api.ResultsSnapshot;
+import com.exercise.booksexplorer.api.RetryPolicy;
+import com.exercise.booksexplorer.api.TimingEventListener;
+import com.exercise.booksexplorer.api.VolumeStore;
+import com.exercise.booksexplorer.api.VolumesCache;
+import com.exercise.booksexplorer.api.VolumesEnricher;
+import com.exercise.booksexplorer.api.VolumesIndex;
+import com.exercise.booksexplorer.api.VolumesRepository;
+import com.exercise.booksexplorer.util.IoScheduler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.books.Books;
 import com.google.api.services.books.BooksRequestInitializer;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import dagger.Lazy;
 import dagger.Module;
 import dagger.Provides;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 @Module
 public class BookModule {
+  // Limits of the volumes responses disk cache
+  private static final long CACHE_MAX_SIZE = 10 * 1024 * 1024;
+  private static final long CACHE_TTL = TimeUnit.HOURS.toMillis(1);
+  private static final long CACHE_MAX_STALE = TimeUnit.DAYS.toMillis(7);
+
+  // Limits of the in-memory volumes store
+  private static final int STORE_MAX_SUMMARIES = 1000;
+  private static final int STORE_MAX_VOLUMES = 50;
+
+  // Batches of the volumes fetched ahead of the details screen
+  private static final int ENRICH_MAX_BATCH_SIZE = 10;
+  private static final long ENRICH_FLUSH_INTERVAL_MILLIS = 300;
+
+  // Limit of the local volumes index file
+  private static final long INDEX_MAX_SIZE = 2 * 1024 * 1024;
+
+  // Limits of the snapshot of the presented results
+  private static final long SNAPSHOT_MAX_SIZE = 512 * 1024;
+  private static final long SNAPSHOT_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+  // Number of recent queries remembered, warmed in background with the pinned ones
+  private static final int HISTORY_MAX_RECENT = 10;
+
+  // HTTP transport settings
+  private static final String TRANSPORT_URL_CONNECTION = "urlconnection";
+  private static final int CONNECT_TIMEOUT_MILLIS = 10 * 1000;
+  private static final int READ_TIMEOUT_MILLIS = 15 * 1000;
+  private static final int MAX_IDLE_CONNECTIONS = 4;
+  private static final long KEEP_ALIVE_MINUTES = 5;
+  private static final long MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
+
+  // Retries of the transient page load failures
+  private static final int RETRY_MAX_ATTEMPTS = 3;
+  private static final long RETRY_BASE_DELAY_MILLIS = 250;
+  private static final long RETRY_MAX_DELAY_MILLIS = 2000;
+
+  // Consecutive failures failing the page loads fast, and for how long
+  private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+  private static final long CIRCUIT_OPEN_MILLIS = 30 * 1000;
+
+  // Hedged page loads, a hedge call for every I/O thread performing a page load
+  private static final int HEDGE_THREADS = 4;
+  private static final int HEDGE_QUEUE_DEPTH = 4;
+  private static final int HEDGE_MIN_SAMPLES = 20;
+  private static final long HEDGE_DEFAULT_DELAY_MILLIS = 1000;
+  private static final long HEDGE_MIN_DELAY_MILLIS = 100;
+
+  // The root URL of the Books API, null for the Google servers
+  private final String mRootUrl;
+
+  public BookModule() {
+    this(null);
+  }
+
+  /**
+   * @param rootUrl the root URL of a Books API stand-in, like a local server replaying recorded responses
+   */
+  public BookModule(String rootUrl) {
+    mRootUrl = rootUrl;
+  }
+
   @Provides
   @Singleton
   JsonFactory providesJsonFactory() {
@@ -29,8 +120,36 @@ public class BookModule {
 
   @Provides
   @Singleton
-  HttpTransport providesHttpTransport() {
-    return new com.google.api.client.http.javanet.NetHttpTransport();
+  NetworkQualityEstimator providesNetworkQualityEstimator() {
+    return new NetworkQualityEstimator();
+  }
+
+  @Provides
+  @Singleton
+  RequestMetrics providesRequestMetrics(NetworkQualityEstimator networkQuality) {
+    return new RequestMetrics(networkQuality);
+  }
+
+  @Provides
+  @Singleton
+  OkHttpClient providesOkHttpClient() {
+    return new OkHttpClient.Builder()
+            // the connection phases of the traced requests
+            .eventListener(new TimingEventListener())
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            .readTimeout(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            .writeTimeout(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  @Provides
+  @Singleton
+  HttpTransport providesHttpTransport(Lazy<OkHttpClient> okHttpClient) {
+    if (TRANSPORT_URL_CONNECTION.equals(BuildConfig.HTTP_TRANSPORT))
+      return new com.google.api.client.http.javanet.NetHttpTransport();
+    return new OkHttpTransport(okHttpClient.get(), MAX_RESPONSE_SIZE);
   }
 
   @Provides
@@ -38,9 +157,78 @@ public class BookModule {
   Books providesBooks(HttpTransport httpTransport, JsonFactory jsonFactory, Application application) {
     String appName = application.getResources().getString(R.string.app_name);
     String apiKey = application.getResources().getString(R.string.google_api_key);
-    return new Books.Builder(httpTransport, jsonFactory, null)
+    HttpRequestInitializer timeouts = new HttpRequestInitializer() {
+      @Override
+      public void initialize(HttpRequest request) throws IOException {
+        request.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        request.setReadTimeout(READ_TIMEOUT_MILLIS);
+      }
+    };
+    Books.Builder builder = new Books.Builder(httpTransport, jsonFactory, timeouts)
             .setApplicationName(appName)
-            .setGoogleClientRequestInitializer(new BooksRequestInitializer(apiKey))
-            .build();
+            .setGoogleClientRequestInitializer(new BooksRequestInitializer(apiKey));
+    if (mRootUrl != null)
+      builder.setRootUrl(mRootUrl);
+    return builder.build();
+  }
+
+  @Provides
+  @Singleton
+  VolumesCache providesVolumesCache(Application application) {
+    return new VolumesCache(new File(application.getCacheDir(), "volumes"),
+            CACHE_MAX_SIZE, CACHE_TTL, CACHE_MAX_STALE);
+  }
+
+  @Provides
+  @Singleton
+  VolumeStore providesVolumeStore(Provider<Books> books, IoScheduler ioScheduler, RequestMetrics metrics) {
+    return new VolumeStore(books, ioScheduler.scheduler(), STORE_MAX_SUMMARIES, STORE_MAX_VOLUMES, metrics);
+  }
+
+  @Provides
+  @Singleton
+  VolumesEnricher providesVolumesEnricher(Provider<Books> books, VolumeStore volumeStore, IoScheduler ioScheduler,
+                                          RequestMetrics metrics) {
+    return new VolumesEnricher(books, volumeStore, ioScheduler.scheduler(), metrics,
+            ENRICH_MAX_BATCH_SIZE, ENRICH_FLUSH_INTERVAL_MILLIS);
+  }
+
+  @Provides
+  @Singleton
+  VolumesIndex providesVolumesIndex(Application application, IoScheduler ioScheduler) {
+    // kept with the application files, unlike the cache it should survive low storage
+    return new VolumesIndex(new File(application.getFilesDir(), "volumes.idx"), INDEX_MAX_SIZE,
+            ioScheduler.scheduler());
+  }
+
+  @Provides
+  @Singleton
+  ResultsSnapshot providesResultsSnapshot(Application application, IoScheduler ioScheduler) {
+    return new ResultsSnapshot(new File(application.getCacheDir(), "results.snapshot"), SNAPSHOT_MAX_SIZE,
+            SNAPSHOT_MAX_AGE, ioScheduler.scheduler());
+  }
+
+  @Provides
+  @Singleton
+  QueryHistory providesQueryHistory(Application application) {
+    return new QueryHistory(application.getSharedPreferences("queries", Context.MODE_PRIVATE),
+            HISTORY_MAX_RECENT);
+  }
+
+  @Provides
+  @Singleton
+  VolumesRepository providesVolumesRepository(Provider<Books> books, Provider<JsonFactory> jsonFactory,
+                                              VolumesCache cache,
+                                              IoScheduler ioScheduler, VolumeStore volumeStore,
+                                              VolumesIndex volumesIndex, RequestMetrics metrics,
+                                              Application application) {
+    RetryPolicy retryPolicy = new RetryPolicy(RETRY_MAX_ATTEMPTS, RETRY_BASE_DELAY_MILLIS, RETRY_MAX_DELAY_MILLIS);
+    CircuitBreaker circuitBreaker = new CircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_MILLIS);
+    // the hedges run on their own pool, the requests on the I/O threads
+    RequestHedger hedger = new RequestHedger(new IoScheduler("books-hedge", HEDGE_THREADS, HEDGE_QUEUE_DEPTH),
+            Schedulers.computation(), metrics.getHistogram(RequestMetrics.VOLUMES_LIST, RequestMetrics.Phase.TTFB),
+            HEDGE_MIN_SAMPLES, HEDGE_DEFAULT_DELAY_MILLIS, HEDGE_MIN_DELAY_MILLIS);
+    return new VolumesRepository(books, jsonFactory, cache, ioScheduler, volumeStore, volumesIndex, metrics,
+            retryPolicy, circuitBreaker, hedger, application.getResources().getInteger(R.integer.page_size));
   }
 }
@@ -0,0 +1,176 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Level and sample gated structured logging into a ring buffer
+ */
+package com.exercise.booksexplorer.util;
+
+import android.util.Log;
+
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Logs events made of a name and up to two numeric fields, like
+ * <pre>
+ * volumes.list ms=182 bytes=10342
+ * </pre>
+ * The events below the configured level are dropped, and the events below {@link Log#WARN} are sampled
+ * one in N when a sample rate is set. A dropped event costs a comparison: the fields are primitives and
+ * constant strings, so nothing is allocated nor formatted unless the event is kept.
+ * <p>
+ * The kept events are recorded into a ring buffer of the last {@link #CAPACITY} events, preallocated, and
+ * dumped by the request metrics debug screen, see {@link #dump(PrintWriter)}. They are echoed to logcat
+ * only if enabled, which formats them. Thread safe.
+ */
+public final class EventLog {
+    // The number of events kept by the ring buffer
+    static final int CAPACITY = 256;
+
+    private static volatile int sMinLevel = Log.INFO;
+    private static volatile int sSampleRate = 1;
+    private static volatile boolean sLogcat;
+    private static int sSampleCount;
+
+    // The ring buffer, as parallel arrays so recording an event allocates nothing
+    private static final long[] sTimes = new long[CAPACITY];
+    private static final int[] sLevels = new int[CAPACITY];
+    private static final String[] sTags = new String[CAPACITY];
+    private static final String[] sNames = new String[CAPACITY];
+    private static final String[] sKeys1 = new String[CAPACITY];
+    private static final long[] sValues1 = new long[CAPACITY];
+    private static final String[] sKeys2 = new String[CAPACITY];
+    private static final long[] sValues2 = new long[CAPACITY];
+    // The index of the next event and the number of events recorded
+    private static int sNext;
+    private static int sCount;
+
+    private EventLog() {
+    }
+
+    /**
+     * @param minLevel   the lowest level kept, a {@link Log} priority
+     * @param sampleRate keeps one in sampleRate events below {@link Log#WARN}, 1 keeps all
+     * @param logcat     true to echo the kept events to logcat
+     */
+    public static void configure(int minLevel, int sampleRate, boolean logcat) {
+        sMinLevel = minLevel;
+        sSampleRate = Math.max(1, sampleRate);
+        sLogcat = logcat;
+    }
+
+    /**
+     * @return true if the events of the level are kept, before sampling. Checked before computing
+     * costly fields.
+     */
+    public static boolean isEnabled(int level) {
+        return level >= sMinLevel;
+    }
+
+    public static void event(int level, String tag, String name) {
+        event(level, tag, name, null, 0, null, 0);
+    }
+
+    public static void event(int level, String tag, String name, String key, long value) {
+        event(level, tag, name, key, value, null, 0);
+    }
+
+    /**
+     * Logs an event with two fields
+     *
+     * @param level  the {@link Log} priority
+     * @param tag    the source of the event
+     * @param name   the event, a constant
+     * @param key1   the name of the first field, null if none
+     * @param value1 the value of the first field
+     * @param key2   the name of the second field, null if none
+     * @param value2 the value of the second field
+     */
+    public static void event(int level, String tag, String name, String key1, long value1, String key2, long value2) {
+        if (!isKept(level))
+            return;
+        synchronized (sTimes) {
+            int i = sNext;
+            sTimes[i] = System.currentTimeMillis();
+            sLevels[i] = level;
+            sTags[i] = tag;
+            sNames[i] = name;
+            sKeys1[i] = key1;
+            sValues1[i] = value1;
+            sKeys2[i] = key2;
+            sValues2[i] = value2;
+            sNext = (i + 1) % CAPACITY;
+            sCount = Math.min(sCount + 1, CAPACITY);
+        }
+        if (sLogcat)
+            Log.println(level, tag, format(name, key1, value1, key2, value2));
+    }
+
+    /**
+     * Prints the recorded events, oldest first
+     */
+    public static void dump(PrintWriter out) {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+        synchronized (sTimes) {
+            out.println("recent events: " + sCount);
+            for (int n = 0; n < sCount; n++) {
+                int i = (sNext - sCount + n + CAPACITY) % CAPACITY;
+                out.println("  " + time.format(new Date(sTimes[i])) + " " + levelLetter(sLevels[i]) + " " + sTags[i]
+                        + ": " + format(sNames[i], sKeys1[i], sValues1[i], sKeys2[i], sValues2[i]));
+            }
+        }
+    }
+
+    /**
+     * Forgets the recorded events
+     */
+    public static void clear() {
+        synchronized (sTimes) {
+            for (int i = 0; i < CAPACITY; i++) {
+                sTags[i] = null;
+                sNames[i] = null;
+                sKeys1[i] = null;
+                sKeys2[i] = null;
+            }
+            sNext = 0;
+            sCount = 0;
+        }
+    }
+
+    private static boolean isKept(int level) {
+        if (level < sMinLevel)
+            return false;
+        int rate = sSampleRate;
+        if (level >= Log.WARN || rate <= 1)
+            return true;
+        synchronized (sTimes) {
+            return sSampleCount++ % rate == 0;
+        }
+    }
+
+    private static String format(String name, String key1, long value1, String key2, long value2) {
+        StringBuilder text = new StringBuilder(name);
+        if (key1 != null)
+            text.append(' ').append(key1).append('=').append(value1);
+        if (key2 != null)
+            text.append(' ').append(key2).append('=').append(value2);
+        return text.toString();
+    }
+
+    private static char levelLetter(int level) {
+        switch (level) {
+            case Log.VERBOSE:
+                return 'V';
+            case Log.DEBUG:
+                return 'D';
+            case Log.INFO:
+                return 'I';
+            case Log.WARN:
+                return 'W';
+            default:
+                return 'E';
+        }
+    }
+}
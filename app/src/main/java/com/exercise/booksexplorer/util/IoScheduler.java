@@ -0,0 +1,213 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Bounded thread pool for network and disk work
+ */
+package com.exercise.booksexplorer.util;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * A fixed number of named background priority threads, exposed as an Executor and as a Rx {@link Scheduler}.
+ * Collects statistics used to size the pool.
+ * <p>
+ * The queue depth is enforced on admission, before a task is accepted: {@link #execute(Runnable)} throws
+ * {@link RejectedExecutionException} to its caller, and {@link #admitted()} fails the subscriber with it.
+ * The tasks of the Rx scheduler are never refused, since a task refused inside a Rx pipeline is dropped
+ * without terminating its subscriber.
+ */
+public class IoScheduler implements Executor {
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String mName;
+    private final int mQueueDepth;
+    private final ThreadPoolExecutor mExecutor;
+    private final Scheduler mScheduler;
+
+    private final AtomicLong mSubmittedCount = new AtomicLong();
+    private final AtomicLong mCompletedCount = new AtomicLong();
+    private final AtomicLong mRejectedCount = new AtomicLong();
+    private final AtomicLong mTotalWaitMillis = new AtomicLong();
+    private final AtomicLong mMaxWaitMillis = new AtomicLong();
+
+    /**
+     * @param name       prefix of the thread names
+     * @param threads    the maximum number of threads
+     * @param queueDepth the maximum number of tasks waiting for a thread to admit a new one
+     */
+    public IoScheduler(final String name, int threads, int queueDepth) {
+        mName = name;
+        mQueueDepth = queueDepth;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onThreadStart();
+                        runnable.run();
+                    }
+                }, name + "-" + threadNumber.incrementAndGet());
+            }
+        };
+        // unbounded, the depth is checked by admit
+        mExecutor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        mExecutor.allowCoreThreadTimeOut(true);
+        mScheduler = Schedulers.from(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submit(command);
+            }
+        });
+    }
+
+    /**
+     * Called on every new thread of the pool before it runs its tasks, lowers its priority to the background one.
+     * Overridden by the tests running on a plain JVM.
+     */
+    protected void onThreadStart() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+    }
+
+    /**
+     * @return the Rx scheduler running on this pool
+     */
+    public Scheduler scheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * Subscribes on this pool if its queue has room, otherwise fails the subscriber with
+     * {@link RejectedExecutionException}. The check happens at each subscription, before the
+     * upstream is subscribed.
+     *
+     * @return a transformer to use instead of subscribeOn({@link #scheduler()}) for the work
+     * that may flood the pool, like the page loads
+     */
+    public <T> ObservableTransformer<T, T> admitted() {
+        return new ObservableTransformer<T, T>() {
+            @Override
+            public ObservableSource<T> apply(final Observable<T> upstream) {
+                return Observable.defer(new Callable<ObservableSource<T>>() {
+                    @Override
+                    public ObservableSource<T> call() throws Exception {
+                        if (!admit())
+                            return Observable.error(new RejectedExecutionException(mName + " queue is full"));
+                        return upstream.subscribeOn(mScheduler);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Runs the command on the pool
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (!admit())
+            throw new RejectedExecutionException(mName + " queue is full");
+        submit(command);
+    }
+
+    /**
+     * @return false if the queue is full, counting the refused task
+     */
+    private boolean admit() {
+        if (mExecutor.getQueue().size() < mQueueDepth)
+            return true;
+        mSubmittedCount.incrementAndGet();
+        mRejectedCount.incrementAndGet();
+        EventLog.event(Log.WARN, mName, "queue.full", "queued", mExecutor.getQueue().size(),
+                "rejected", mRejectedCount.get());
+        return false;
+    }
+
+    private void submit(final Runnable command) {
+        final long queuedAt = System.currentTimeMillis();
+        mSubmittedCount.incrementAndGet();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long wait = System.currentTimeMillis() - queuedAt;
+                mTotalWaitMillis.addAndGet(wait);
+                long max = mMaxWaitMillis.get();
+                while (wait > max && !mMaxWaitMillis.compareAndSet(max, wait))
+                    max = mMaxWaitMillis.get();
+                try {
+                    command.run();
+                } finally {
+                    mCompletedCount.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * @return a snapshot of the pool statistics
+     */
+    public Stats getStats() {
+        long started = mSubmittedCount.get() - mRejectedCount.get() - mExecutor.getQueue().size();
+        return new Stats(mName, mExecutor.getActiveCount(), mExecutor.getPoolSize(), mExecutor.getMaximumPoolSize(),
+                mExecutor.getQueue().size(), mCompletedCount.get(), mRejectedCount.get(),
+                started > 0 ? mTotalWaitMillis.get() / started : 0, mMaxWaitMillis.get());
+    }
+
+    /**
+     * Pool statistics
+     */
+    public static class Stats {
+        public final String name;
+        public final int activeThreads;
+        public final int poolSize;
+        public final int maxPoolSize;
+        public final int queueLength;
+        public final long completedTasks;
+        public final long rejectedTasks;
+        public final long averageWaitMillis;
+        public final long maxWaitMillis;
+
+        Stats(String name, int activeThreads, int poolSize, int maxPoolSize, int queueLength,
+              long completedTasks, long rejectedTasks, long averageWaitMillis, long maxWaitMillis) {
+            this.name = name;
+            this.activeThreads = activeThreads;
+            this.poolSize = poolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.queueLength = queueLength;
+            this.completedTasks = completedTasks;
+            this.rejectedTasks = rejectedTasks;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s{active=%d, threads=%d/%d, queued=%d, completed=%d, rejected=%d, avgWait=%dms, maxWait=%dms}",
+                    name, activeThreads, poolSize, maxPoolSize, queueLength, completedTasks, rejectedTasks,
+                    averageWaitMillis, maxWaitMillis);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Cold start milestones tracing
+ */
+package com.exercise.booksexplorer.util;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Measures the time from the process start to the first frame drawn and to the first search
+ * results drawn, and logs them under the {@code StartupTrace} tag:
+ * <pre>
+ * timeToFirstFrame = 412 ms
+ * timeToFirstResult = 1730 ms, 388 ms after the query
+ * </pre>
+ * The process start is known from Android N, before it the application creation is used.
+ * All methods must be called from the main thread.
+ */
+public final class StartupTrace {
+    private static final String TAG = StartupTrace.class.getSimpleName();
+
+    private static long sStartMillis = -1;
+    private static long sFirstFrameMillis = -1;
+    private static long sFirstQueryMillis = -1;
+    private static long sFirstResultMillis = -1;
+    private static boolean sFirstResultPending;
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Called first thing by the application creation
+     */
+    public static void onApplicationCreate() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N)
+            sStartMillis = Process.getStartElapsedRealtime();
+        else
+            sStartMillis = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Records the next frame drawn by the view as the first frame, if not recorded yet
+     */
+    public static void traceFirstFrame(View view) {
+        if (sFirstFrameMillis >= 0 || sStartMillis < 0)
+            return;
+        onNextDraw(view, new Runnable() {
+            @Override
+            public void run() {
+                if (sFirstFrameMillis >= 0)
+                    return;
+                sFirstFrameMillis = SystemClock.elapsedRealtime();
+                Log.i(TAG, String.format("timeToFirstFrame = %d ms", sFirstFrameMillis - sStartMillis));
+            }
+        });
+    }
+
+    /**
+     * Called when the first query is performed
+     */
+    public static void onQuery() {
+        if (sFirstQueryMillis < 0)
+            sFirstQueryMillis = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Records the next frame drawn by the results list as the first result, if not recorded yet
+     */
+    public static void traceFirstResult(View list) {
+        if (sFirstResultMillis >= 0 || sFirstResultPending || sStartMillis < 0)
+            return;
+        sFirstResultPending = true;
+        onNextDraw(list, new Runnable() {
+            @Override
+            public void run() {
+                sFirstResultMillis = SystemClock.elapsedRealtime();
+                Log.i(TAG, String.format("timeToFirstResult = %d ms, %d ms after the query",
+                        sFirstResultMillis - sStartMillis, sFirstResultMillis - sFirstQueryMillis));
+            }
+        });
+    }
+
+    /**
+     * @return the time from the process start to the first frame, -1 if not drawn yet
+     */
+    public static long getTimeToFirstFrame() {
+        return sFirstFrameMillis < 0 ? -1 : sFirstFrameMillis - sStartMillis;
+    }
+
+    /**
+     * @return the time from the process start to the first results drawn, -1 if not drawn yet
+     */
+    public static long getTimeToFirstResult() {
+        return sFirstResultMillis < 0 ? -1 : sFirstResultMillis - sStartMillis;
+    }
+
+    private static void onNextDraw(final View view, final Runnable action) {
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean mDrawn;
+
+            @Override
+            public void onDraw() {
+                if (mDrawn)
+                    return;
+                mDrawn = true;
+                final ViewTreeObserver.OnDrawListener listener = this;
+                // the listener cannot be removed during the draw, and the frame is complete after it
+                view.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (observer.isAlive())
+                            observer.removeOnDrawListener(listener);
+                        else
+                            view.getViewTreeObserver().removeOnDrawListener(listener);
+                        action.run();
+                    }
+                });
+            }
+        });
+    }
+}
@@ -26,4 +26,21 @@ public class StringUtils {
         return sb.toString();
     }
 
+    /**
+     * Shortens a text to the last word boundary within the maximum length, appending an ellipsis
+     *
+     * @param text      the text, may be null
+     * @param maxLength the maximum length of the result
+     * @return the text if short enough, the truncated text otherwise
+     */
+    public static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength)
+            return text;
+        int end = maxLength - 1;
+        int space = text.lastIndexOf(' ', end);
+        if (space > maxLength / 2)
+            end = space;
+        return text.substring(0, end) + '\u2026';
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Systrace sections of the request, parse and bind phases
+ */
+package com.exercise.booksexplorer.util;
+
+import android.os.Trace;
+
+/**
+ * Marks the phases of the results in the system traces, captured by systrace or the Android Studio
+ * profiler. The section names are constants so a section allocates nothing, and when no trace is being
+ * captured a section costs only the check of the tracing state by {@link Trace}. A section ends on the
+ * thread it began on, in a finally block:
+ * <pre>
+ * Tracing.begin(Tracing.PARSE);
+ * try {
+ *     ...
+ * } finally {
+ *     Tracing.end();
+ * }
+ * </pre>
+ */
+public final class Tracing {
+    // Decoding a response, the requests are sections named by their endpoint, see RequestTrace
+    public static final String PARSE = "Books.parse";
+    // Presenting the results in the list
+    public static final String BIND = "Books.bind";
+
+    private Tracing() {
+    }
+
+    public static void begin(String section) {
+        Trace.beginSection(section);
+    }
+
+    public static void end() {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: CircuitBreaker testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the transitions of the circuit breaker on a manual clock
+ */
+public class CircuitBreakerTest {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MILLIS = 1000;
+
+    private long mNow;
+    private CircuitBreaker mBreaker;
+
+    @Before
+    public void setUp() {
+        mNow = 0;
+        mBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_MILLIS) {
+            @Override
+            long now() {
+                return mNow;
+            }
+        };
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            mBreaker.check();
+            mBreaker.onFailure();
+        }
+        mBreaker.check();
+        mBreaker.onSuccess();
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            mBreaker.check();
+            mBreaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, mBreaker.getState());
+
+        mBreaker.check();
+        mBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, mBreaker.getState());
+        assertRejected();
+        assertEquals(1, mBreaker.getRejectedCount());
+    }
+
+    @Test
+    public void probeAfterCooldown_closesOnSuccess() throws Exception {
+        open();
+        mNow += OPEN_MILLIS;
+        mBreaker.check();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, mBreaker.getState());
+        // a single probe at a time
+        assertRejected();
+
+        mBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, mBreaker.getState());
+        mBreaker.check();
+    }
+
+    @Test
+    public void probeAfterCooldown_reopensOnFailure() throws Exception {
+        open();
+        mNow += OPEN_MILLIS;
+        mBreaker.check();
+        mBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, mBreaker.getState());
+        assertEquals(2, mBreaker.getOpenedCount());
+
+        mNow += OPEN_MILLIS - 1;
+        assertRejected();
+        mNow += 1;
+        mBreaker.check();
+    }
+
+    @Test
+    public void probeNeverReported_anotherProbeAfterCooldown() throws Exception {
+        open();
+        mNow += OPEN_MILLIS;
+        mBreaker.check();
+        mNow += OPEN_MILLIS - 1;
+        assertRejected();
+        mNow += 1;
+        mBreaker.check();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, mBreaker.getState());
+    }
+
+    private void open() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            mBreaker.check();
+            mBreaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, mBreaker.getState());
+    }
+
+    private void assertRejected() {
+        try {
+            mBreaker.check();
+            fail("The request was allowed");
+        } catch (CircuitBreaker.OpenException expected) {
+            // failed fast
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: NetworkQualityEstimator testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the classification of the network and the pagination it drives
+ */
+public class NetworkQualityEstimatorTest {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int DEFAULT_PREFETCH_PAGES = 3;
+
+    private final NetworkQualityEstimator mEstimator = new NetworkQualityEstimator();
+
+    @Test
+    public void unknown_usesDefaults() {
+        response(50, 64 * 1024, 100);
+
+        assertEquals(NetworkQualityEstimator.Quality.UNKNOWN, mEstimator.getQuality());
+        assertEquals(DEFAULT_PAGE_SIZE, mEstimator.getPageSize(DEFAULT_PAGE_SIZE));
+        assertEquals(DEFAULT_PREFETCH_PAGES, mEstimator.getPrefetchPages(DEFAULT_PREFETCH_PAGES));
+        assertFalse(mEstimator.useSmallCovers());
+    }
+
+    @Test
+    public void fastNetwork_fewLargePages() {
+        // 64 KB in 100 ms is about 5 Mbps
+        for (int i = 0; i < 3; i++)
+            response(50, 64 * 1024, 100);
+
+        assertEquals(NetworkQualityEstimator.Quality.EXCELLENT, mEstimator.getQuality());
+        assertEquals(40, mEstimator.getPageSize(DEFAULT_PAGE_SIZE));
+        // a single default page when two would exceed the API limit
+        assertEquals(30, mEstimator.getPageSize(30));
+        assertEquals(1, mEstimator.getPrefetchPages(DEFAULT_PREFETCH_PAGES));
+        assertFalse(mEstimator.useSmallCovers());
+    }
+
+    @Test
+    public void slowNetwork_defaultPagesAheadAndSmallCovers() {
+        // 16 KB in 1.5 s is about 90 kbps
+        for (int i = 0; i < 3; i++)
+            response(400, 16 * 1024, 1500);
+
+        assertEquals(NetworkQualityEstimator.Quality.POOR, mEstimator.getQuality());
+        assertEquals(DEFAULT_PAGE_SIZE, mEstimator.getPageSize(DEFAULT_PAGE_SIZE));
+        assertEquals(4, mEstimator.getPrefetchPages(DEFAULT_PREFETCH_PAGES));
+        assertTrue(mEstimator.useSmallCovers());
+    }
+
+    @Test
+    public void slowRoundTrip_lowersFastThroughput() {
+        for (int i = 0; i < 3; i++)
+            response(800, 64 * 1024, 100);
+
+        assertEquals(NetworkQualityEstimator.Quality.MODERATE, mEstimator.getQuality());
+    }
+
+    @Test
+    public void recentRequestsWeighMost() {
+        for (int i = 0; i < 3; i++)
+            response(50, 64 * 1024, 100);
+        for (int i = 0; i < 10; i++)
+            response(2000, 16 * 1024, 2000);
+
+        assertEquals(NetworkQualityEstimator.Quality.POOR, mEstimator.getQuality());
+
+        mEstimator.reset();
+        assertEquals(NetworkQualityEstimator.Quality.UNKNOWN, mEstimator.getQuality());
+        assertEquals(-1, mEstimator.getRttMillis());
+    }
+
+    private void response(long ttfbMillis, long bytes, long downloadMillis) {
+        mEstimator.onResponse(TimeUnit.MILLISECONDS.toNanos(ttfbMillis), bytes,
+                TimeUnit.MILLISECONDS.toNanos(downloadMillis));
+    }
+}
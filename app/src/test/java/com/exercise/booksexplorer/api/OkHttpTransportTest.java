@@ -0,0 +1,144 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: OkHttpTransport testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.books.Books;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Serves a recorded volumes page from a local fake server to check the responses, compression
+ * and connection reuse of {@link OkHttpTransport}
+ */
+public class OkHttpTransportTest {
+    private static final int REQUESTS = 5;
+    private static final long MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+
+    private MockWebServer mServer;
+    private byte[] mPage;
+    private byte[] mGzippedPage;
+    private final AtomicLong mBytesSent = new AtomicLong();
+    private final AtomicInteger mConnections = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        InputStream in = getClass().getClassLoader().getResourceAsStream("volumes_page.json");
+        mPage = VolumesCache.readFully(in);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(mPage);
+        }
+        mGzippedPage = gzipped.toByteArray();
+
+        mServer = new MockWebServer();
+        mServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getSequenceNumber() == 0)
+                    mConnections.incrementAndGet();
+                MockResponse response = new MockResponse()
+                        .setHeader("Content-Type", "application/json; charset=UTF-8");
+                String acceptEncoding = request.getHeader("Accept-Encoding");
+                byte[] body = mPage;
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    response.setHeader("Content-Encoding", "gzip");
+                    body = mGzippedPage;
+                }
+                mBytesSent.addAndGet(body.length);
+                return response.setBody(new Buffer().write(body));
+            }
+        });
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.shutdown();
+    }
+
+    @Test
+    public void okHttpTransport_decodesPage() throws Exception {
+        VolumesPage page = requestPage(books(okHttpTransport(MAX_RESPONSE_SIZE)));
+
+        assertEquals(VolumesPageDecoder.decode(JSON_FACTORY, new ByteArrayInputStream(mPage)).getItems(),
+                page.getItems());
+        assertEquals(mGzippedPage.length, mBytesSent.get());
+    }
+
+    @Test
+    public void okHttpTransport_rejectsOversizedResponse() throws Exception {
+        try {
+            requestPage(books(okHttpTransport(mPage.length / 2)));
+            fail("Oversized response accepted");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void okHttpTransport_reusesConnection() throws Exception {
+        Books books = books(okHttpTransport(MAX_RESPONSE_SIZE));
+        for (int i = 0; i < REQUESTS; i++)
+            requestPage(books);
+
+        assertEquals(REQUESTS, mServer.getRequestCount());
+        assertEquals(1, mConnections.get());
+        assertEquals(REQUESTS * mGzippedPage.length, mBytesSent.get());
+    }
+
+    private VolumesPage requestPage(Books books) throws IOException {
+        Books.Volumes.List request = books.volumes().list("android");
+        request.setFields(BookSummary.LIST_FIELDS);
+        HttpResponse response = request.executeUnparsed();
+        try {
+            return VolumesPageDecoder.decode(JSON_FACTORY, response.getContent());
+        } finally {
+            response.disconnect();
+        }
+    }
+
+    private Books books(HttpTransport transport) {
+        return new Books.Builder(transport, JSON_FACTORY, null)
+                .setRootUrl(mServer.url("/").toString())
+                .setApplicationName("BooksExplorer-benchmark")
+                .build();
+    }
+
+    private static OkHttpTransport okHttpTransport(long maxResponseSize) {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(4, 5, TimeUnit.MINUTES))
+                .build();
+        return new OkHttpTransport(client, maxResponseSize);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: RequestHedger testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.testing.http.MockHttpTransport;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the outcome of a hedged request, the hedging delay elapsing on a manual clock
+ */
+public class RequestHedgerTest {
+    private static final long DELAY_MILLIS = 100;
+
+    private final TestScheduler mTimer = new TestScheduler();
+    // counted down once the duplicate request reported its outcome
+    private final CountDownLatch mHedgeDone = new CountDownLatch(1);
+
+    // runs the duplicate on its own thread
+    private final Executor mExecutor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    command.run();
+                    mHedgeDone.countDown();
+                }
+            }).start();
+        }
+    };
+
+    private final RequestHedger mHedger =
+            new RequestHedger(mExecutor, mTimer, new LatencyHistogram(), 10, DELAY_MILLIS, DELAY_MILLIS);
+
+    @Test
+    public void failedHedge_requestResponseReturned() throws Exception {
+        final HttpResponse primary = response();
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger calls = new AtomicInteger();
+        Callable<HttpResponse> request = new Callable<HttpResponse>() {
+            @Override
+            public HttpResponse call() throws Exception {
+                calls.incrementAndGet();
+                if (Thread.currentThread() != caller)
+                    throw new HttpResponseException.Builder(503, "Service Unavailable", new HttpHeaders()).build();
+                // the request is slow, it is hedged, then answers once the duplicate failed
+                mTimer.advanceTimeBy(DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                assertTrue(mHedgeDone.await(5, TimeUnit.SECONDS));
+                return primary;
+            }
+        };
+        RequestTrace trace = new RequestTrace(new RequestMetrics(), RequestMetrics.VOLUMES_LIST, -1);
+
+        assertSame(primary, mHedger.execute(request, trace));
+        assertEquals(2, calls.get());
+        assertTrue(trace.isHedged());
+        assertFalse(trace.isHedgeWon());
+    }
+
+    private static HttpResponse response() throws Exception {
+        return new MockHttpTransport().createRequestFactory()
+                .buildGetRequest(new GenericUrl("http://localhost/books/v1/volumes"))
+                .execute();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: ResultsSnapshot testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the records of the results snapshot, the rewriting of the restored pages and the restoring of a file
+ * cut while written
+ */
+public class ResultsSnapshotTest {
+    private static final long MAX_SIZE = 64 * 1024;
+    private static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int PAGE_SIZE = 2;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+    private ResultsSnapshot mSnapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = new File(mFolder.getRoot(), "results.snapshot");
+        // the writes are performed at once
+        mSnapshot = new ResultsSnapshot(mFile, MAX_SIZE, MAX_AGE_MILLIS, Schedulers.trampoline());
+    }
+
+    @Test
+    public void read_restoresCompletePagesAndLastPosition() {
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        mSnapshot.addChunk(0, 0, Collections.singletonList(volume("1")));
+        mSnapshot.addChunk(0, 1, Collections.singletonList(volume("2")));
+        mSnapshot.setPosition("1", -10);
+        mSnapshot.addChunk(2, 0, Collections.singletonList(volume("3")));
+        mSnapshot.setPosition("2", -20);
+
+        ResultsSnapshot.State state = mSnapshot.read();
+        assertEquals("java", state.query);
+        // the incomplete last page is loaded again
+        assertEquals(1, state.pages.size());
+        assertEquals(Arrays.asList(volume("1"), volume("2")), state.pages.get(0));
+        assertEquals(PAGE_SIZE, state.getNextStart());
+        assertEquals("2", state.topVolumeId);
+        assertEquals(-20, state.topOffset);
+    }
+
+    @Test
+    public void setPosition_overwritesWithoutGrowingResults() {
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        mSnapshot.addChunk(0, 0, Arrays.asList(volume("1"), volume("2")));
+        long size = mFile.length();
+        for (int i = 0; i < 1000; i++)
+            mSnapshot.setPosition("1", -i);
+
+        assertEquals(size, mFile.length());
+        ResultsSnapshot.State state = mSnapshot.read();
+        assertEquals("1", state.topVolumeId);
+        assertEquals(-999, state.topOffset);
+    }
+
+    @Test
+    public void replaceRestoredPages_keepsPagesAddedAfter() {
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        mSnapshot.addChunk(0, 0, Arrays.asList(volume("1"), volume("2")));
+        mSnapshot.setPosition("2", -20);
+        mSnapshot.restart(mSnapshot.read());
+        mSnapshot.addChunk(2, 0, Arrays.asList(volume("3"), volume("4")));
+
+        mSnapshot.replaceRestoredPages(Collections.singletonList(Arrays.asList(volume("1"), volume("5"))));
+
+        ResultsSnapshot.State state = mSnapshot.read();
+        assertEquals(2, state.pages.size());
+        assertEquals(Arrays.asList(volume("1"), volume("5")), state.pages.get(0));
+        assertEquals(Arrays.asList(volume("3"), volume("4")), state.pages.get(1));
+        assertEquals("2", state.topVolumeId);
+    }
+
+    @Test
+    public void read_ignoresRecordCutWhileWritten() throws Exception {
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        mSnapshot.addChunk(0, 0, Arrays.asList(volume("1"), volume("2")));
+        mSnapshot.addChunk(2, 0, Arrays.asList(volume("3"), volume("4")));
+        try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        ResultsSnapshot.State state = mSnapshot.read();
+        assertEquals(1, state.pages.size());
+        assertNull(state.topVolumeId);
+    }
+
+    @Test
+    public void startQuery_replacesPreviousQuery() {
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        mSnapshot.addChunk(0, 0, Arrays.asList(volume("1"), volume("2")));
+        mSnapshot.setPosition("1", -10);
+        mSnapshot.startQuery("kotlin", 0, PAGE_SIZE);
+
+        ResultsSnapshot.State state = mSnapshot.read();
+        assertEquals("kotlin", state.query);
+        assertEquals(0, state.pages.size());
+        assertNull(state.topVolumeId);
+    }
+
+    @Test
+    public void read_noSnapshotOrTooOld() {
+        assertNull(mSnapshot.read());
+
+        mSnapshot.startQuery("java", 0, PAGE_SIZE);
+        assertNull(new ResultsSnapshot(mFile, MAX_SIZE, -1, Schedulers.trampoline()).read());
+    }
+
+    private static BookSummary volume(String id) {
+        return new BookSummary(id, null, "Title " + id, Collections.singletonList("Author"), null, null);
+    }
+}
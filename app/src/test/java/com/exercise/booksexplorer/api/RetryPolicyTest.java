@@ -0,0 +1,96 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: RetryPolicy testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Random;
+
+import javax.net.ssl.SSLHandshakeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the classification of the failures and the bounds of the jittered delays
+ */
+public class RetryPolicyTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 1000;
+
+    private final RetryPolicy mPolicy = new RetryPolicy(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS);
+
+    @Test
+    public void networkFailures_transient() {
+        assertTrue(mPolicy.isTransient(new SocketTimeoutException()));
+        assertTrue(mPolicy.isTransient(new ConnectException()));
+        assertTrue(mPolicy.isTransient(new UnknownHostException()));
+    }
+
+    @Test
+    public void serverErrorsAndThrottling_transient() {
+        assertTrue(mPolicy.isTransient(status(500)));
+        assertTrue(mPolicy.isTransient(status(503)));
+        assertTrue(mPolicy.isTransient(status(429)));
+    }
+
+    @Test
+    public void otherFailures_notTransient() {
+        assertFalse(mPolicy.isTransient(status(400)));
+        assertFalse(mPolicy.isTransient(status(404)));
+        assertFalse(mPolicy.isTransient(new InterruptedIOException()));
+        assertFalse(mPolicy.isTransient(new SSLHandshakeException("untrusted")));
+        assertFalse(mPolicy.isTransient(new EOFException()));
+        assertFalse(mPolicy.isTransient(new IOException("Canceled")));
+        assertFalse(mPolicy.isTransient(new CircuitBreaker.OpenException("open")));
+    }
+
+    @Test
+    public void delays_withinExponentialBound() {
+        RetryPolicy policy = new RetryPolicy(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS, new Random(42));
+        for (int attempt = 1; attempt <= 40; attempt++) {
+            long bound = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt - 1, 30));
+            for (int i = 0; i < 100; i++) {
+                long delay = policy.getDelayMillis(attempt);
+                assertTrue("attempt " + attempt + " delay " + delay, delay >= 0 && delay < bound);
+            }
+        }
+    }
+
+    @Test
+    public void delays_fullJitter() {
+        assertEquals(0, new RetryPolicy(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS, fixed(0))
+                .getDelayMillis(2));
+        assertEquals(2 * BASE_DELAY_MILLIS - 1, new RetryPolicy(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS,
+                fixed(0.999)).getDelayMillis(2));
+        assertEquals(MAX_DELAY_MILLIS / 2, new RetryPolicy(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS,
+                fixed(0.5)).getDelayMillis(10));
+    }
+
+    private static HttpResponseException status(int statusCode) {
+        return new HttpResponseException.Builder(statusCode, null, new HttpHeaders()).build();
+    }
+
+    private static Random fixed(final double value) {
+        return new Random() {
+            @Override
+            public double nextDouble() {
+                return value;
+            }
+        };
+    }
+}
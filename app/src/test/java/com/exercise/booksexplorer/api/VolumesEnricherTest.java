@@ -0,0 +1,98 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: VolumesEnricher testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.books.Books;
+import com.google.api.services.books.model.Volume;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the batches are sent to the batch endpoint of the Books API, from a local fake server
+ */
+public class VolumesEnricherTest {
+    private static final String BOUNDARY = "batch_volumes";
+
+    private MockWebServer mServer;
+
+    @Before
+    public void setUp() throws Exception {
+        mServer = new MockWebServer();
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.shutdown();
+    }
+
+    @Test
+    public void batch_sentOnceToBooksBatchEndpoint() throws Exception {
+        mServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "multipart/mixed; boundary=" + BOUNDARY)
+                .setBody(part("<response-1>", "{\"id\":\"a\"}") + part("<response-2>", "{\"id\":\"b\"}")
+                        + "--" + BOUNDARY + "--\r\n"));
+        Books books = new Books.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                .setRootUrl(mServer.url("/").toString())
+                .setApplicationName("BooksExplorer-test")
+                .build();
+        final List<String> fetched = new ArrayList<>();
+        JsonBatchCallback<Volume> callback = new JsonBatchCallback<Volume>() {
+            @Override
+            public void onSuccess(Volume volume, HttpHeaders responseHeaders) {
+                fetched.add(volume.getId());
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                fetched.add("failed " + error.getCode());
+            }
+        };
+
+        BatchRequest batch = VolumesEnricher.newBatch(books);
+        books.volumes().get("a").queue(batch, callback);
+        books.volumes().get("b").queue(batch, callback);
+        batch.execute();
+
+        assertEquals(1, mServer.getRequestCount());
+        RecordedRequest request = mServer.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/batch/books/v1", request.getPath());
+        List<String> expected = new ArrayList<>();
+        expected.add("a");
+        expected.add("b");
+        assertEquals(expected, fetched);
+    }
+
+    private static String part(String contentId, String json) {
+        return "--" + BOUNDARY + "\r\n"
+                + "Content-Type: application/http\r\n"
+                + "Content-ID: " + contentId + "\r\n"
+                + "\r\n"
+                + "HTTP/1.1 200 OK\r\n"
+                + "Content-Type: application/json; charset=UTF-8\r\n"
+                + "Content-Length: " + json.length() + "\r\n"
+                + "\r\n"
+                + json + "\r\n";
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: VolumesIndex testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import io.reactivex.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the matching, the size bound and the persistence of the local volumes index
+ */
+public class VolumesIndexTest {
+    private static final long MAX_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mFile;
+    private VolumesIndex mIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        mFile = new File(mFolder.getRoot(), "volumes.idx");
+        mIndex = new VolumesIndex(mFile, MAX_SIZE, Schedulers.single());
+    }
+
+    @Test
+    public void search_matchesPrefixesOfAllWords() {
+        BookSummary android = volume("1", "Android Programming", "Bill Phillips", "The Big Nerd Ranch guide");
+        BookSummary java = volume("2", "Effective Java", "Joshua Bloch", "Best practices for the Java platform");
+        mIndex.add(android);
+        mIndex.add(java);
+
+        assertEquals(Arrays.asList(android), mIndex.search("andr", 10));
+        assertEquals(Arrays.asList(java), mIndex.search("JAVA bloch", 10));
+        assertEquals(Arrays.asList(android), mIndex.search("nerd phil", 10));
+        assertTrue(mIndex.search("android java", 10).isEmpty());
+    }
+
+    @Test
+    public void search_ignoresCaseAndDiacritics() {
+        BookSummary book = volume("1", "Les Misérables", "Victor Hugo", null);
+        mIndex.add(book);
+
+        assertEquals(Arrays.asList(book), mIndex.search("miserables", 10));
+        assertEquals(Arrays.asList(book), mIndex.search("MISÉR", 10));
+    }
+
+    @Test
+    public void search_returnsMostRecentlySeenFirst() {
+        BookSummary first = volume("1", "Kotlin in Action", null, null);
+        BookSummary second = volume("2", "Kotlin Cookbook", null, null);
+        mIndex.add(first);
+        mIndex.add(second);
+
+        assertEquals(Arrays.asList(second, first), mIndex.search("kotlin", 10));
+        assertEquals(Arrays.asList(second), mIndex.search("kotlin", 1));
+    }
+
+    @Test
+    public void add_replacesChangedVolume() {
+        mIndex.add(volume("1", "Old title", null, null));
+        BookSummary updated = volume("1", "New title", null, null);
+        mIndex.add(updated);
+
+        assertTrue(mIndex.search("old", 10).isEmpty());
+        assertEquals(Arrays.asList(updated), mIndex.search("new", 10));
+        assertEquals(1, mIndex.getVolumeCount());
+    }
+
+    @Test
+    public void add_evictsLeastRecentlySeenBeyondMaxSize() {
+        char[] text = new char[1024];
+        Arrays.fill(text, 'x');
+        for (int i = 0; i < 100; i++)
+            mIndex.add(volume(String.valueOf(i), "Volume " + i, null, new String(text)));
+
+        assertTrue(mIndex.getSize() <= MAX_SIZE);
+        assertTrue(mIndex.getVolumeCount() < 100);
+        List<BookSummary> kept = mIndex.search("volume", 100);
+        assertEquals(mIndex.getVolumeCount(), kept.size());
+        assertEquals("99", kept.get(0).getId());
+        assertEquals(String.valueOf(100 - kept.size()), kept.get(kept.size() - 1).getId());
+    }
+
+    @Test
+    public void save_persistsVolumes() {
+        BookSummary book = volume("1", "Clean Code", "Robert Martin", "A handbook of agile craftsmanship");
+        mIndex.add(book);
+        mIndex.save();
+
+        VolumesIndex reloaded = new VolumesIndex(mFile, MAX_SIZE, Schedulers.single());
+        List<BookSummary> result = reloaded.search("craftsman", 10);
+        assertEquals(Arrays.asList(book), result);
+        assertEquals(book.getAuthors(), result.get(0).getAuthors());
+    }
+
+    private static BookSummary volume(String id, String title, String author, String description) {
+        return new BookSummary(id, "etag" + id, title, author == null ? null : Arrays.asList(author),
+                description, null);
+    }
+}
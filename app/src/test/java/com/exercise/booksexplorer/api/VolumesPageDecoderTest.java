@@ -0,0 +1,68 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: VolumesPageDecoder testing class
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.books.model.Volume;
+import com.google.api.services.books.model.Volumes;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the streaming decoder against the reflection based GenericJson parsing on a recorded volumes page,
+ * and that the encoded parts of a page decode back.
+ * Their speed is compared by the VolumesDecodingBenchmark of the benchmark module.
+ */
+public class VolumesPageDecoderTest {
+    private static final JsonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+    private static byte[] sPage;
+
+    @BeforeClass
+    public static void loadPage() throws IOException {
+        InputStream in = VolumesPageDecoderTest.class.getClassLoader().getResourceAsStream("volumes_page.json");
+        sPage = VolumesCache.readFully(in);
+    }
+
+    @Test
+    public void decode_matchesGenericJson() throws Exception {
+        VolumesPage streamed = VolumesPageDecoder.decode(JSON_FACTORY, new ByteArrayInputStream(sPage));
+        VolumesPage parsed = decodeGenericJson();
+
+        assertEquals(parsed.getTotalItems(), streamed.getTotalItems());
+        assertEquals(parsed.getItems(), streamed.getItems());
+        assertEquals(20, streamed.getItems().size());
+    }
+
+    @Test
+    public void encode_decodesBack() throws Exception {
+        VolumesPage page = VolumesPageDecoder.decode(JSON_FACTORY, new ByteArrayInputStream(sPage));
+        List<BookSummary> part = page.getItems().subList(10, 20);
+
+        VolumesPage decoded = VolumesPageDecoder.decode(JSON_FACTORY,
+                new ByteArrayInputStream(VolumesPageEncoder.encode(JSON_FACTORY, page.getTotalItems(), part)));
+
+        assertEquals(page.getTotalItems(), decoded.getTotalItems());
+        assertEquals(part, decoded.getItems());
+    }
+
+    private static VolumesPage decodeGenericJson() throws IOException {
+        Volumes volumes = JSON_FACTORY.fromInputStream(new ByteArrayInputStream(sPage), Volumes.class);
+        List<BookSummary> items = new ArrayList<>();
+        for (Volume volume : volumes.getItems())
+            items.add(BookSummary.from(volume));
+        return new VolumesPage(volumes.getTotalItems(), items);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: EventLog testing class
+ */
+package com.exercise.booksexplorer.util;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the gating of the events by level and sampling, and the ring buffer of the kept events
+ */
+public class EventLogTest {
+
+    @Before
+    public void setUp() {
+        EventLog.clear();
+    }
+
+    @After
+    public void tearDown() {
+        EventLog.configure(Log.INFO, 1, false);
+        EventLog.clear();
+    }
+
+    @Test
+    public void eventsBelowLevel_dropped() {
+        EventLog.configure(Log.INFO, 1, false);
+        EventLog.event(Log.DEBUG, "Test", "dropped", "count", 1);
+        EventLog.event(Log.INFO, "Test", "kept", "count", 2, "ms", 3);
+
+        String dump = dump();
+        assertFalse(dump.contains("dropped"));
+        assertTrue(dump.contains("Test: kept count=2 ms=3"));
+        assertTrue(dump.startsWith("recent events: 1"));
+    }
+
+    @Test
+    public void sampling_keepsOneInNButWarnings() {
+        EventLog.configure(Log.DEBUG, 4, false);
+        for (int i = 0; i < 8; i++)
+            EventLog.event(Log.DEBUG, "Test", "sampled");
+        EventLog.event(Log.WARN, "Test", "failed");
+
+        assertTrue(dump().startsWith("recent events: 3"));
+    }
+
+    @Test
+    public void ringBuffer_keepsLastEvents() {
+        EventLog.configure(Log.DEBUG, 1, false);
+        for (int i = 0; i < EventLog.CAPACITY + 10; i++)
+            EventLog.event(Log.DEBUG, "Test", "event", "i", i);
+
+        String[] lines = dump().split(System.lineSeparator());
+        assertEquals(EventLog.CAPACITY + 1, lines.length);
+        assertTrue(lines[1].endsWith("event i=10"));
+        assertTrue(lines[EventLog.CAPACITY].endsWith("event i=" + (EventLog.CAPACITY + 9)));
+    }
+
+    private static String dump() {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        EventLog.dump(out);
+        out.flush();
+        return text.toString();
+    }
+}
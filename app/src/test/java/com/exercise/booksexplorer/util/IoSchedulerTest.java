@@ -0,0 +1,110 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: IoScheduler testing class
+ */
+package com.exercise.booksexplorer.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that a saturated pool refuses the new work to its callers and subscribers, and drops nothing
+ */
+public class IoSchedulerTest {
+    private static final int QUEUE_DEPTH = 2;
+
+    private final CountDownLatch mRelease = new CountDownLatch(1);
+    private IoScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mScheduler = new IoScheduler("test", 1, QUEUE_DEPTH) {
+            @Override
+            protected void onThreadStart() {
+                // the JVM threads keep their priority
+            }
+        };
+        // one running and QUEUE_DEPTH waiting
+        for (int i = 0; i <= QUEUE_DEPTH; i++) {
+            mScheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        mRelease.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+    }
+
+    @After
+    public void tearDown() {
+        mRelease.countDown();
+    }
+
+    @Test
+    public void saturated_executeThrows() throws Exception {
+        awaitQueued(QUEUE_DEPTH);
+        try {
+            mScheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            fail("The task was accepted");
+        } catch (RejectedExecutionException expected) {
+            // refused to the caller
+        }
+        assertEquals(1, mScheduler.getStats().rejectedTasks);
+    }
+
+    @Test
+    public void saturated_admittedObserverFails() throws Exception {
+        awaitQueued(QUEUE_DEPTH);
+        TestObserver<Integer> observer = Observable.just(1)
+                .compose(mScheduler.<Integer>admitted())
+                .test();
+
+        assertTrue(observer.awaitTerminalEvent(1, TimeUnit.SECONDS));
+        observer.assertError(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void saturated_schedulerTaskRunsWhenReleased() throws Exception {
+        awaitQueued(QUEUE_DEPTH);
+        TestObserver<Integer> observer = Observable.just(1)
+                .subscribeOn(mScheduler.scheduler())
+                .test();
+
+        mRelease.countDown();
+        assertTrue(observer.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        observer.assertResult(1);
+    }
+
+    /**
+     * Waits for the worker to take the first task, leaving the others queued
+     */
+    private void awaitQueued(int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mScheduler.getStats().queueLength != queued || mScheduler.getStats().activeThreads != 1) {
+            if (System.currentTimeMillis() > deadline)
+                fail("The pool did not start " + mScheduler.getStats());
+            Thread.sleep(10);
+        }
+    }
+}
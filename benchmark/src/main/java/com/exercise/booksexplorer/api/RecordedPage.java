@@ -0,0 +1,56 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: The recorded volumes page of the benchmarks
+ */
+package com.exercise.booksexplorer.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A volumes list response of 20 items recorded from the Books API, requested with the full projection
+ */
+public final class RecordedPage {
+    private static final String RESOURCE = "volumes_page.json";
+
+    private RecordedPage() {
+    }
+
+    /**
+     * @return the bytes of the response
+     */
+    public static byte[] read() throws IOException {
+        InputStream in = RecordedPage.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null)
+            throw new IOException(RESOURCE + " not found");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                out.write(buffer, 0, read);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @param items the items of the page
+     * @param count the number of books
+     * @return the items repeated up to the count, with distinct ids
+     */
+    public static List<BookSummary> books(List<BookSummary> items, int count) {
+        List<BookSummary> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BookSummary item = items.get(i % items.size());
+            books.add(new BookSummary(item.getId() + "-" + i, item.getEtag(), item.getTitle(), item.getAuthors(),
+                    item.getDescription(), item.getThumbnailUrl()));
+        }
+        return books;
+    }
+}
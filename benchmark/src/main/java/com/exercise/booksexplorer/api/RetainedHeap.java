@@ -0,0 +1,101 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Retained heap per search result measurement
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.books.model.Volumes;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained per search result when the results are held as {@link BookSummary}
+ * items and as the {@link Volumes} model of the API client, by the used heap after full collections
+ * before and after decoding many copies of the recorded page. Writes a JSON object like
+ * <pre>
+ * {"results": 4000, "pageBytes": 68226, "bookSummaryBytes": &lt;bytes per result&gt;, "volumeBytes": &lt;bytes per result&gt;}
+ * </pre>
+ * to the standard output and to the file given as the argument.
+ */
+public final class RetainedHeap {
+    private static final int PAGES = 200;
+
+    private interface Decoder {
+        Object decode(byte[] page) throws IOException;
+    }
+
+    private RetainedHeap() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final JsonFactory jsonFactory = JacksonFactory.getDefaultInstance();
+        byte[] page = RecordedPage.read();
+        int pageItems = VolumesPageDecoder.decode(jsonFactory, new ByteArrayInputStream(page)).getItems().size();
+
+        long summaryBytes = measure(page, new Decoder() {
+            @Override
+            public Object decode(byte[] page) throws IOException {
+                return VolumesPageDecoder.decode(jsonFactory, new ByteArrayInputStream(page)).getItems();
+            }
+        });
+        long volumeBytes = measure(page, new Decoder() {
+            @Override
+            public Object decode(byte[] page) throws IOException {
+                return jsonFactory.fromInputStream(new ByteArrayInputStream(page), Volumes.class);
+            }
+        });
+
+        int results = pageItems * PAGES;
+        String json = String.format("{\"results\": %d, \"pageBytes\": %d, \"bookSummaryBytes\": %d, \"volumeBytes\": %d}",
+                results, page.length, summaryBytes / results, volumeBytes / results);
+        System.out.println(json);
+        if (args.length > 0) {
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(new File(args[0])), "UTF-8")) {
+                out.write(json);
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * @return the heap retained by the decoded pages
+     */
+    private static long measure(byte[] page, Decoder decoder) throws Exception {
+        // loads and initializes the classes involved out of the measurement
+        decoder.decode(page);
+
+        List<Object> pages = new ArrayList<>(PAGES);
+        long before = usedHeap();
+        for (int i = 0; i < PAGES; i++)
+            pages.add(decoder.decode(page));
+        long after = usedHeap();
+        if (pages.size() != PAGES)
+            throw new IllegalStateException();
+        return after - before;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // collects until the used heap stops shrinking
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used)
+                break;
+            used = current;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Volumes page decoding benchmark
+ */
+package com.exercise.booksexplorer.api;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.books.model.Volumes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the recorded page through {@link JacksonFactory}, with the streaming {@link VolumesPageDecoder}
+ * of the app and with the reflection based parsing into the {@link Volumes} model of the API client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class VolumesDecodingBenchmark {
+    private final JsonFactory mJsonFactory = JacksonFactory.getDefaultInstance();
+    private byte[] mPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        mPage = RecordedPage.read();
+    }
+
+    @Benchmark
+    public VolumesPage decodeSummaries() throws IOException {
+        return VolumesPageDecoder.decode(mJsonFactory, new ByteArrayInputStream(mPage));
+    }
+
+    @Benchmark
+    public Volumes parseVolumes() throws IOException {
+        return mJsonFactory.fromInputStream(new ByteArrayInputStream(mPage), Volumes.class);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: Adapter list operations benchmark
+ */
+package com.exercise.booksexplorer.books;
+
+import com.exercise.booksexplorer.api.BookSummary;
+import com.exercise.booksexplorer.api.RecordedPage;
+import com.exercise.booksexplorer.api.VolumesPageDecoder;
+import com.google.api.client.json.jackson2.JacksonFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The snapshot operations of {@link BookSearchAdapter} on the main thread, at the sizes of the results
+ * scrolled through: appending a page of 20 books to the books in place by {@code addAll}/{@code addPage},
+ * and replacing the books by {@code clear} and {@code submitList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BookListsBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    // The books already in the adapter
+    @Param({"20", "200", "1000"})
+    public int books;
+
+    private List<BookSummary> mBooks;
+    private Set<String> mIds;
+    private List<BookSummary> mPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<BookSummary> items = VolumesPageDecoder.decode(JacksonFactory.getDefaultInstance(),
+                new ByteArrayInputStream(RecordedPage.read())).getItems();
+        List<BookSummary> all = RecordedPage.books(items, books + PAGE_SIZE);
+        mBooks = new ArrayList<>(all.subList(0, books));
+        mIds = new HashSet<>();
+        for (BookSummary book : mBooks)
+            mIds.add(book.getId());
+        mPage = new ArrayList<>(all.subList(books, books + PAGE_SIZE));
+    }
+
+    /**
+     * Appends a page to the books and their ids in place, as {@code BookSearchAdapter.append}.
+     * The page is removed again for the next invocation, the removal of the tail costing little.
+     */
+    @Benchmark
+    public int addAll() {
+        int[] indexes = new int[mPage.size()];
+        int count = BookLists.appendDistinct(mBooks, mIds, mPage, 0, indexes);
+        for (int i = 0; i < count; i++)
+            mIds.remove(mPage.get(indexes[i]).getId());
+        mBooks.subList(books, mBooks.size()).clear();
+        return count;
+    }
+
+    /**
+     * Builds the snapshot of a new list after a clear, as {@code BookSearchAdapter.submitList}
+     */
+    @Benchmark
+    public List<BookSummary> clearAndSubmit() {
+        return BookLists.distinct(mBooks, new HashSet<String>());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Project:     BooksExplorer
+ * Date:        10/18/2026
+ * Description: String utilities benchmark
+ */
+package com.exercise.booksexplorer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins the authors and truncates the description of a result, as done once per decoded book
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+    private static final String WORDS = "Bytecode metatables engine closures grammar engine scripting embedded modules ";
+
+    @Param({"1", "3", "10"})
+    public int authors;
+
+    @Param({"200", "2000"})
+    public int descriptionLength;
+
+    private List<String> mAuthors;
+    private String mDescription;
+
+    @Setup
+    public void setUp() {
+        mAuthors = new ArrayList<>(authors);
+        for (int i = 0; i < authors; i++)
+            mAuthors.add("Author Name " + i);
+        StringBuilder description = new StringBuilder(descriptionLength + WORDS.length());
+        while (description.length() < descriptionLength)
+            description.append(WORDS);
+        mDescription = description.substring(0, descriptionLength);
+    }
+
+    @Benchmark
+    public String concat() {
+        return StringUtils.concat(mAuthors);
+    }
+
+    @Benchmark
+    public String truncate() {
+        return StringUtils.truncate(mDescription, 400);
+    }
+}